@@ -0,0 +1,70 @@
+package fi.tuni.prog3.weatherapp;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the response decoders of DataFetcher over recorded responses.
+ * Run with "-prof gc" to see the allocation rate.
+ *
+ * @author Melina
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DecoderBenchmark {
+
+    private byte[] geocode;
+    private byte[] current;
+    private byte[] daily;
+    private byte[] hourly;
+    private byte[] oneCall;
+
+    @Setup
+    public void setUp() {
+        geocode = Payloads.load("geocode");
+        current = Payloads.load("current");
+        daily = Payloads.load("daily");
+        hourly = Payloads.load("hourly");
+        oneCall = Payloads.load("onecall");
+    }
+
+    @Benchmark
+    public Location decodeLocation() throws IOException {
+        return ResponseDecoder.decodeLocation(Payloads.reader(geocode));
+    }
+
+    @Benchmark
+    public CurrentConditions decodeCurrentWeather() throws IOException {
+        return ResponseDecoder.decodeCurrentWeather(Payloads.reader(current));
+    }
+
+    @Benchmark
+    public List<DailyForecastEntry> decodeDailyForecast() throws IOException {
+        return ResponseDecoder.decodeDailyForecast(Payloads.reader(daily));
+    }
+
+    @Benchmark
+    public List<HourlyForecastEntry> decodeHourlyForecast() throws IOException {
+        return ResponseDecoder.decodeHourlyForecast(Payloads.reader(hourly));
+    }
+
+    @Benchmark
+    public WeatherBundle decodeOneCall() throws IOException {
+        return ResponseDecoder.decodeOneCall(Payloads.reader(oneCall));
+    }
+}
@@ -0,0 +1,58 @@
+package fi.tuni.prog3.weatherapp;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of turning decoded forecasts into the WeatherData rows of
+ * WeatherForecast and HourlyForecast, the step that used to format every row
+ * into a String and parse it again. Run with "-prof gc" to see the allocation
+ * rate.
+ *
+ * @author Melina
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ForecastMappingBenchmark {
+
+    private DataFetcher dataFetcher;
+    private List<DailyForecastEntry> daily;
+    private List<HourlyForecastEntry> hourly;
+
+    @Setup
+    public void setUp() throws IOException {
+        dataFetcher = new DataFetcher(Duration.ofSeconds(1), new GeocodeCache(), new ResponseCache());
+        daily = ResponseDecoder.decodeDailyForecast(Payloads.reader(Payloads.load("daily")));
+        hourly = ResponseDecoder.decodeHourlyForecast(Payloads.reader(Payloads.load("hourly")));
+    }
+
+    @Benchmark
+    public WeatherForecast mapDailyForecast() {
+        WeatherForecast forecast = new WeatherForecast(dataFetcher);
+        forecast.applyDailyData(daily, 61.4980214, 23.7603118, "Tampere");
+        return forecast;
+    }
+
+    @Benchmark
+    public HourlyForecast mapHourlyForecast() {
+        HourlyForecast forecast = new HourlyForecast(dataFetcher);
+        forecast.applyHourlyData(hourly);
+        return forecast;
+    }
+}
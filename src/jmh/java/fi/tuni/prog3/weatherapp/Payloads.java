@@ -0,0 +1,45 @@
+package fi.tuni.prog3.weatherapp;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Loads the recorded OpenWeatherMap responses in src/test/resources/payloads
+ * for the benchmarks.
+ *
+ * @author Melina
+ */
+final class Payloads {
+
+    private Payloads() {
+    }
+
+    /**
+     * Reads a recorded response.
+     *
+     * @param name The name of the payload, e.g. "hourly".
+     * @return The response body.
+     */
+    static byte[] load(String name) {
+        try (InputStream in = Payloads.class.getResourceAsStream("/payloads/" + name + ".json")) {
+            return in.readAllBytes();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Opens a recorded response the way DataFetcher opens a response body.
+     *
+     * @param body The response body.
+     * @return Reader over the body.
+     */
+    static Reader reader(byte[] body) {
+        return new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8);
+    }
+}
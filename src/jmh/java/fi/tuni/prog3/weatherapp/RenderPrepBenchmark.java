@@ -0,0 +1,73 @@
+package fi.tuni.prog3.weatherapp;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Throughput of the work done for every row before it is rendered: choosing
+ * the wind direction icon, choosing the weather icon and formatting the date
+ * label. Each benchmark operation handles a whole forecast worth of rows.
+ * Run with "-prof gc" to see the allocation rate.
+ *
+ * @author Melina
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RenderPrepBenchmark {
+
+    private static final int[] WEATHER_IDS = {
+        200, 300, 500, 502, 503, 521, 600, 601, 602, 615, 616, 701, 800, 801, 802, 803, 804
+    };
+
+    private final WeatherData weatherData = new WeatherData();
+    private final DataFetcher dataFetcher = new DataFetcher();
+    private double[] windDirections;
+    private String[] dates;
+
+    @Setup
+    public void setUp() {
+        windDirections = new double[96];
+        for (int i = 0; i < windDirections.length; i++) {
+            windDirections[i] = (i * 37.5) % 360;
+        }
+        dates = new String[7];
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = dataFetcher.unixToString(1760781600L + i * 86400L);
+        }
+    }
+
+    @Benchmark
+    public void windDirectionPath(Blackhole blackhole) {
+        for (double direction : windDirections) {
+            blackhole.consume(weatherData.getWindDirectionPath(direction));
+        }
+    }
+
+    @Benchmark
+    public void weatherIconPath(Blackhole blackhole) {
+        for (int id : WEATHER_IDS) {
+            blackhole.consume(WeatherData.getIconPath(id, "https://openweathermap.org/img/wn/10d@2x.png"));
+        }
+    }
+
+    @Benchmark
+    public void dayLabel(Blackhole blackhole) {
+        for (String date : dates) {
+            blackhole.consume(WeatherApp.formatDayLabel(date));
+        }
+    }
+}
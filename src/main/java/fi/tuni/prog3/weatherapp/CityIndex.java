@@ -0,0 +1,275 @@
+package fi.tuni.prog3.weatherapp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An offline geocoder over a list of cities, compiled at build time into a
+ * binary index by CityIndexBuilder. The index stays in its buffer, which is
+ * memory-mapped when the index is a file, and a lookup is a binary search
+ * over the sorted normalised names, so resolving a name needs no network
+ * access and the cities take no heap.
+ *
+ * The index starts with a header: the magic number, the number of cities
+ * and a prefix table holding, for every possible first byte of a name, the
+ * position of the first city whose name starts with that byte or a greater
+ * one. The fixed-size records of the cities follow, sorted by normalised
+ * name and, for equal names, by descending population. Each record holds
+ * the offset and the lengths of its names, the country code, the
+ * population and the coordinates. The UTF-8 names end the index.
+ *
+ * @author Melina
+ */
+public final class CityIndex implements iGeocoder {
+
+    static final int MAGIC = 0x43495459; // "CITY"
+    static final int HEADER_SIZE = 8 + 257 * 4;
+    static final int RECORD_SIZE = 32;
+    static final String RESOURCE = "/geocoder/cities.idx";
+
+    private final ByteBuffer data;
+    private final int count;
+
+    private CityIndex(ByteBuffer data) throws IOException {
+        if (data.limit() < HEADER_SIZE || data.getInt(0) != MAGIC) {
+            throw new IOException("Not a city index");
+        }
+        this.data = data;
+        this.count = data.getInt(4);
+        if (count < 0 || HEADER_SIZE + (long) count * RECORD_SIZE > data.limit()) {
+            throw new IOException("City index is truncated");
+        }
+    }
+
+    /**
+     * Returns the city index bundled with the application. The index is
+     * mapped, or read if it is packaged in a jar, the first time this is
+     * called.
+     *
+     * @return The bundled index, which is empty if the index is missing.
+     */
+    public static CityIndex getDefault() {
+        return Bundled.INDEX;
+    }
+
+    /**
+     * Reads a city index from a stream into a direct buffer.
+     *
+     * @param in The stream containing the index.
+     * @return The city index.
+     * @throws IOException If the stream can't be read or does not contain a
+     * city index.
+     */
+    public static CityIndex read(InputStream in) throws IOException {
+        byte[] bytes = in.readAllBytes();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        return new CityIndex(buffer);
+    }
+
+    /**
+     * Memory-maps a city index file.
+     *
+     * @param file The index file.
+     * @return The city index.
+     * @throws IOException If the file can't be mapped or is not a city
+     * index.
+     */
+    public static CityIndex map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new CityIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Returns the coordinates of a city. The name is matched after
+     * normalising it like GeocodeCache does, and a country code may follow
+     * the name after a comma, e.g. "Portland, US". If several cities have
+     * the name, the most populous one is returned.
+     *
+     * @param loc The name of the city.
+     * @return The city, or null if the index has no such city.
+     */
+    @Override
+    public Location lookUpLocation(String loc) {
+        String query = GeocodeCache.normalise(loc);
+        String[] parts = query.split(",", -1);
+        if (parts[0].isEmpty()) {
+            return null;
+        }
+        String country = parts.length > 1 ? parts[1] : null;
+        byte[] key = parts[0].getBytes(StandardCharsets.UTF_8);
+        for (int i = lowerBound(key); i < count && compareKey(i, key) == 0; i++) {
+            if (country == null || isInCountry(i, country)) {
+                return location(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the most populous cities whose normalised names start with
+     * the normalised given text.
+     *
+     * @param prefix The start of the name.
+     * @param limit The maximum number of cities returned.
+     * @return The names of the cities, most populous first.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String normalised = GeocodeCache.normalise(prefix);
+        if (normalised.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        byte[] key = normalised.getBytes(StandardCharsets.UTF_8);
+        // The most populous matches so far, in descending population
+        int[] best = new int[limit];
+        int found = 0;
+        for (int i = lowerBound(key); i < count && startsWith(i, key); i++) {
+            int population = population(i);
+            if (found == limit && population <= population(best[limit - 1])) {
+                continue;
+            }
+            int position = Math.min(found, limit - 1);
+            while (position > 0 && population(best[position - 1]) < population) {
+                best[position] = best[position - 1];
+                position--;
+            }
+            best[position] = i;
+            found = Math.min(found + 1, limit);
+        }
+        List<String> names = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            names.add(location(best[i]).getName());
+        }
+        return names;
+    }
+
+    /**
+     * Returns the number of cities in the index.
+     *
+     * @return The number of cities.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns the position of the first city whose name is not less than
+     * the given name.
+     */
+    int lowerBound(byte[] key) {
+        int low = prefixStart(key[0] & 0xFF);
+        int high = prefixStart((key[0] & 0xFF) + 1);
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareKey(middle, key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compares the normalised name of a city with the given name, like
+     * Arrays.compareUnsigned.
+     */
+    int compareKey(int city, byte[] key) {
+        int record = record(city);
+        int offset = data.getInt(record);
+        int length = data.get(record + 4) & 0xFF;
+        for (int i = 0; i < Math.min(length, key.length); i++) {
+            int difference = (data.get(offset + i) & 0xFF) - (key[i] & 0xFF);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - key.length;
+    }
+
+    private boolean startsWith(int city, byte[] key) {
+        int record = record(city);
+        int offset = data.getInt(record);
+        if ((data.get(record + 4) & 0xFF) < key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (data.get(offset + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int population(int city) {
+        return data.getInt(record(city) + 8);
+    }
+
+    /**
+     * Returns the name and coordinates of a city.
+     */
+    Location location(int city) {
+        int record = record(city);
+        int offset = data.getInt(record) + (data.get(record + 4) & 0xFF);
+        byte[] name = new byte[data.get(record + 5) & 0xFF];
+        data.duplicate().position(offset).get(name);
+        return new Location(new String(name, StandardCharsets.UTF_8),
+                data.getDouble(record + 12), data.getDouble(record + 20));
+    }
+
+    private boolean isInCountry(int city, String country) {
+        int record = record(city);
+        return country.length() == 2
+                && data.get(record + 6) == country.charAt(0)
+                && data.get(record + 7) == country.charAt(1);
+    }
+
+    private int prefixStart(int firstByte) {
+        return data.getInt(8 + firstByte * 4);
+    }
+
+    private static int record(int city) {
+        return HEADER_SIZE + city * RECORD_SIZE;
+    }
+
+    /**
+     * Holds the bundled index, which is loaded when the holder is first
+     * used.
+     */
+    private static final class Bundled {
+
+        private static final CityIndex INDEX = load();
+
+        private static CityIndex load() {
+            URL url = CityIndex.class.getResource(RESOURCE);
+            try {
+                if (url == null) {
+                    Logger.getLogger(CityIndex.class.getName()).log(Level.WARNING,
+                            "{0} is missing", RESOURCE);
+                    return new CityIndex(ByteBuffer.allocate(HEADER_SIZE).putInt(0, MAGIC));
+                }
+                if ("file".equals(url.getProtocol())) {
+                    return map(Paths.get(url.toURI()));
+                }
+                try (InputStream in = url.openStream()) {
+                    return read(in);
+                }
+            } catch (IOException | URISyntaxException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package fi.tuni.prog3.weatherapp;
+
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compiles a tab-separated list of cities into the index format read by
+ * CityIndex. Every line holds the name, the country code, the population,
+ * the latitude and the longitude of a city; empty lines and lines starting
+ * with '#' are skipped. The build runs this after compiling, with
+ * src/main/cities/cities.tsv as the source and the index resource in
+ * target/classes as the target.
+ *
+ * @author Melina
+ */
+public final class CityIndexBuilder {
+
+    private CityIndexBuilder() {
+    }
+
+    /**
+     * Builds a city index.
+     *
+     * @param args The city list and the index file to write.
+     * @throws IOException If the list can't be read or the index can't be
+     * written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: CityIndexBuilder <city list> <index file>");
+        }
+        Path target = Paths.get(args[1]);
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8);
+                OutputStream out = Files.newOutputStream(target)) {
+            int count = build(in, out);
+            System.out.println("Indexed " + count + " cities into " + target);
+        }
+    }
+
+    /**
+     * Writes the cities of a list as a city index, sorted by their
+     * normalised names and, for equal names, by descending population.
+     *
+     * @param in The city list.
+     * @param out The stream the index is written to.
+     * @return The number of indexed cities.
+     * @throws IOException If the list can't be read or is malformed, or the
+     * index can't be written.
+     */
+    static int build(BufferedReader in, OutputStream out) throws IOException {
+        List<City> cities = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\t");
+            try {
+                if (fields.length != 5 || fields[1].length() != 2) {
+                    throw new IllegalArgumentException("expected 5 fields");
+                }
+                cities.add(new City(fields[0].trim(), fields[1], Integer.parseInt(fields[2]),
+                        Double.parseDouble(fields[3]), Double.parseDouble(fields[4])));
+            } catch (IllegalArgumentException ex) {
+                throw new IOException("Malformed city on line " + lineNumber + ": " + ex.getMessage());
+            }
+        }
+        cities.sort(Comparator.<City, byte[]>comparing(city -> city.key, Arrays::compareUnsigned)
+                .thenComparingInt(city -> -city.population));
+
+        int stringsOffset = CityIndex.HEADER_SIZE + cities.size() * CityIndex.RECORD_SIZE;
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(CityIndex.MAGIC);
+        data.writeInt(cities.size());
+        int first = 0;
+        for (int b = 0; b < 256; b++) {
+            while (first < cities.size() && (cities.get(first).key[0] & 0xFF) < b) {
+                first++;
+            }
+            data.writeInt(first);
+        }
+        data.writeInt(cities.size());
+
+        int offset = stringsOffset;
+        for (City city : cities) {
+            data.writeInt(offset);
+            data.writeByte(city.key.length);
+            data.writeByte(city.name.length);
+            data.writeByte(city.country.charAt(0));
+            data.writeByte(city.country.charAt(1));
+            data.writeInt(city.population);
+            data.writeDouble(city.latitude);
+            data.writeDouble(city.longitude);
+            data.writeInt(0);
+            offset += city.key.length + city.name.length;
+        }
+        for (City city : cities) {
+            data.write(city.key);
+            data.write(city.name);
+        }
+        data.flush();
+        return cities.size();
+    }
+
+    private static final class City {
+
+        final byte[] key;
+        final byte[] name;
+        final String country;
+        final int population;
+        final double latitude;
+        final double longitude;
+
+        City(String name, String country, int population, double latitude, double longitude) {
+            this.key = GeocodeCache.normalise(name).getBytes(StandardCharsets.UTF_8);
+            this.name = name.getBytes(StandardCharsets.UTF_8);
+            if (key.length == 0 || key.length > 255 || this.name.length > 255) {
+                throw new IllegalArgumentException("name must have 1 to 255 bytes");
+            }
+            this.country = country.toLowerCase(Locale.ROOT);
+            this.population = population;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package fi.tuni.prog3.weatherapp;
+
+import java.util.Objects;
+
+/**
+ * The immutable current weather at one location as returned by the
+ * OpenWeatherMap current weather endpoint.
+ *
+ * @author Melina
+ */
+public final class CurrentConditions {
+
+    private final double temperature;
+    private final String description;
+    private final double precipitation;
+    private final double windSpeed;
+    private final double windDirection;
+    private final int weatherId;
+    private final String icon;
+    private final long cityId;
+
+    /**
+     * Constructs the current conditions.
+     *
+     * @param temperature Temperature in degrees Celsius
+     * @param description Description of weather conditions
+     * @param precipitation Precipitation of the last hour in millimetres
+     * @param windSpeed Wind speed in metres per second
+     * @param windDirection Wind direction in degrees
+     * @param weatherId OpenWeatherMap weather condition id
+     * @param icon OpenWeatherMap icon code, e.g. "10d"
+     */
+    public CurrentConditions(double temperature, String description,
+            double precipitation, double windSpeed, double windDirection,
+            int weatherId, String icon) {
+        this(temperature, description, precipitation, windSpeed, windDirection,
+                weatherId, icon, 0);
+    }
+
+    /**
+     * Constructs the current conditions of an OpenWeatherMap city.
+     *
+     * @param temperature Temperature in degrees Celsius
+     * @param description Description of weather conditions
+     * @param precipitation Precipitation of the last hour in millimetres
+     * @param windSpeed Wind speed in metres per second
+     * @param windDirection Wind direction in degrees
+     * @param weatherId OpenWeatherMap weather condition id
+     * @param icon OpenWeatherMap icon code, e.g. "10d"
+     * @param cityId OpenWeatherMap id of the city, or 0 if it is not known
+     */
+    public CurrentConditions(double temperature, String description,
+            double precipitation, double windSpeed, double windDirection,
+            int weatherId, String icon, long cityId) {
+        this.temperature = temperature;
+        this.description = description;
+        this.precipitation = precipitation;
+        this.windSpeed = windSpeed;
+        this.windDirection = windDirection;
+        this.weatherId = weatherId;
+        this.icon = icon;
+        this.cityId = cityId;
+    }
+
+    public double getTemperature() {
+        return temperature;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public double getPrecipitation() {
+        return precipitation;
+    }
+
+    public double getWindSpeed() {
+        return windSpeed;
+    }
+
+    public double getWindDirection() {
+        return windDirection;
+    }
+
+    public int getWeatherId() {
+        return weatherId;
+    }
+
+    public String getIcon() {
+        return icon;
+    }
+
+    public String getIconUrl() {
+        return DataFetcher.iconUrl(icon);
+    }
+
+    /**
+     * Returns the OpenWeatherMap id of the city, which can be used to request
+     * the weather of many cities at once.
+     *
+     * @return The city id, or 0 if it is not known
+     */
+    public long getCityId() {
+        return cityId;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof CurrentConditions)) {
+            return false;
+        }
+        CurrentConditions other = (CurrentConditions) obj;
+        return Double.compare(temperature, other.temperature) == 0
+                && Double.compare(precipitation, other.precipitation) == 0
+                && Double.compare(windSpeed, other.windSpeed) == 0
+                && Double.compare(windDirection, other.windDirection) == 0
+                && weatherId == other.weatherId
+                && Objects.equals(description, other.description)
+                && cityId == other.cityId
+                && Objects.equals(icon, other.icon);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(temperature, description, precipitation, windSpeed,
+                windDirection, weatherId, icon, cityId);
+    }
+
+    @Override
+    public String toString() {
+        return "Temp: " + temperature + ", Description: " + description
+                + ", Precipitation: " + precipitation + ", WindSpeed: " + windSpeed
+                + ", WindDeg: " + windDirection + ", Id: " + weatherId + ", Icon: " + icon
+                + ", City: " + cityId;
+    }
+}
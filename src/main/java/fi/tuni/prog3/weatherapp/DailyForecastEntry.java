@@ -0,0 +1,76 @@
+package fi.tuni.prog3.weatherapp;
+
+import java.util.Objects;
+
+/**
+ * One immutable day of the OpenWeatherMap daily forecast.
+ *
+ * @author Melina
+ */
+public final class DailyForecastEntry {
+
+    private final long time;
+    private final String icon;
+    private final double minTemp;
+    private final double maxTemp;
+
+    /**
+     * Constructs a daily forecast entry.
+     *
+     * @param time The forecasted day as a unix timestamp in seconds
+     * @param icon OpenWeatherMap icon code, e.g. "10d"
+     * @param minTemp Minimum temperature of the day in degrees Celsius
+     * @param maxTemp Maximum temperature of the day in degrees Celsius
+     */
+    public DailyForecastEntry(long time, String icon, double minTemp, double maxTemp) {
+        this.time = time;
+        this.icon = icon;
+        this.minTemp = minTemp;
+        this.maxTemp = maxTemp;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public String getIcon() {
+        return icon;
+    }
+
+    public String getIconUrl() {
+        return DataFetcher.iconUrl(icon);
+    }
+
+    public double getMinTemp() {
+        return minTemp;
+    }
+
+    public double getMaxTemp() {
+        return maxTemp;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof DailyForecastEntry)) {
+            return false;
+        }
+        DailyForecastEntry other = (DailyForecastEntry) obj;
+        return time == other.time
+                && Double.compare(minTemp, other.minTemp) == 0
+                && Double.compare(maxTemp, other.maxTemp) == 0
+                && Objects.equals(icon, other.icon);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(time, icon, minTemp, maxTemp);
+    }
+
+    @Override
+    public String toString() {
+        return "Date: " + time + ", Icon: " + icon + ", MinTemp: " + minTemp + ", MaxTemp: " + maxTemp;
+    }
+}
@@ -1,16 +1,30 @@
 package fi.tuni.prog3.weatherapp;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.MalformedURLException;
-import java.net.URL;
+import java.io.Reader;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -21,62 +35,199 @@ import java.util.logging.Logger;
  * OpenWeatherMap API and parse the JSON responses to obtain weather
  * information.
  *
+ * All requests go through one shared HttpClient, which negotiates HTTP/2 and
+ * keeps connections alive between requests. The asynchronous methods of
+ * iAsyncAPI do not block the caller; the blocking methods of iAPI wait for the
+ * corresponding asynchronous request.
+ *
  * This class implements the iAPI interface to define standard methods for data
  * retrieval.
  *
  * @author Melina
  */
-public class DataFetcher implements iAPI {
+public class DataFetcher implements iAPI, iAsyncAPI {
 
     private final static String URL_LOC = "http://pro.openweathermap.org/geo/1.0/direct?q=";
     private final static String URL_COORD = "https://pro.openweathermap.org/data/2.5/weather?lat=";
+    private final static String URL_GROUP = "https://pro.openweathermap.org/data/2.5/group?id=";
+    final static int GROUP_SIZE = 20;
     private final static String URL_ICON = "https://openweathermap.org/img/wn/";
     private final static String URL_DAILY_FORECAST = "https://pro.openweathermap.org/data/2.5/forecast/daily?lat=";
     private final static String URL_HOURLY_FORECAST = "https://pro.openweathermap.org/data/2.5/forecast/hourly?lat=";
-    private final static String API_KEY = "**********";
+    final static String API_KEY = "**********";
+    private final static String API_PROPERTY = "weatherapp.api";
+    private final static String GEOCODER_PROPERTY = "weatherapp.geocoder";
+
+    private final static Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private final static Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final static HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(CONNECT_TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    // Decoding reads the body while it arrives and blocks until it has, so
+    // it runs on a few threads of its own and not on the HttpClient threads
+    private final static int DECODER_THREADS = 4;
+    private final static ExecutorService DECODER = Executors.newFixedThreadPool(DECODER_THREADS, r -> {
+        Thread thread = new Thread(r, "response-decoder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final static String GEOCODE_CACHE_FILE = "./geocodeCache.json";
+    private final static GeocodeCache SHARED_GEOCODE_CACHE = new GeocodeCache(Paths.get(GEOCODE_CACHE_FILE));
+    private final static ResponseCache SHARED_RESPONSE_CACHE = new ResponseCache();
+    private final static InFlightRequests IN_FLIGHT = new InFlightRequests();
+
+    private final Duration requestTimeout;
+    private final GeocodeCache geocodeCache;
+    private final ResponseCache responseCache;
+    private final iGeocoder localGeocoder;
+
+    /**
+     * Constructs a DataFetcher with the default request deadline.
+     */
+    public DataFetcher() {
+        this(DEFAULT_REQUEST_TIMEOUT);
+    }
+
+    /**
+     * Constructs a DataFetcher whose requests fail if no response has been
+     * received within the given time.
+     *
+     * @param requestTimeout The deadline of a single request.
+     */
+    public DataFetcher(Duration requestTimeout) {
+        this(requestTimeout, SHARED_GEOCODE_CACHE, SHARED_RESPONSE_CACHE);
+    }
+
+    /**
+     * Constructs a DataFetcher that uses the given caches.
+     *
+     * @param requestTimeout The deadline of a single request.
+     * @param geocodeCache The cache for location lookups.
+     * @param responseCache The cache for weather and forecast responses.
+     */
+    public DataFetcher(Duration requestTimeout, GeocodeCache geocodeCache, ResponseCache responseCache) {
+        this(requestTimeout, geocodeCache, responseCache, null);
+    }
+
+    /**
+     * Constructs a DataFetcher that resolves locations with a local geocoder
+     * before asking the OpenWeatherMap geocoding API.
+     *
+     * @param requestTimeout The deadline of a single request.
+     * @param geocodeCache The cache for location lookups.
+     * @param responseCache The cache for weather and forecast responses.
+     * @param localGeocoder The geocoder tried before the API, or null to use
+     * the API only.
+     */
+    public DataFetcher(Duration requestTimeout, GeocodeCache geocodeCache, ResponseCache responseCache,
+            iGeocoder localGeocoder) {
+        this.requestTimeout = requestTimeout;
+        this.geocodeCache = geocodeCache;
+        this.responseCache = responseCache;
+        this.localGeocoder = localGeocoder;
+    }
+
+    /**
+     * Constructs the DataFetcher selected by the "weatherapp.api" system
+     * property: a OneCallDataFetcher if the property is "onecall", otherwise
+     * a DataFetcher that uses the separate current weather and forecast
+     * endpoints. If the "weatherapp.geocoder" property is "offline", the
+     * fetcher resolves locations with the bundled CityIndex first.
+     *
+     * @return DataFetcher - the configured fetcher
+     */
+    public static DataFetcher create() {
+        iGeocoder localGeocoder = "offline".equalsIgnoreCase(System.getProperty(GEOCODER_PROPERTY, ""))
+                ? CityIndex.getDefault() : null;
+        if ("onecall".equalsIgnoreCase(System.getProperty(API_PROPERTY, ""))) {
+            return new OneCallDataFetcher(DEFAULT_REQUEST_TIMEOUT, SHARED_GEOCODE_CACHE,
+                    SHARED_RESPONSE_CACHE, localGeocoder);
+        }
+        return new DataFetcher(DEFAULT_REQUEST_TIMEOUT, SHARED_GEOCODE_CACHE, SHARED_RESPONSE_CACHE,
+                localGeocoder);
+    }
+
+    /**
+     * Returns the response cache used by this DataFetcher.
+     *
+     * @return ResponseCache - the cache, including its hit and miss counts
+     */
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Returns the geocode cache used by this DataFetcher.
+     *
+     * @return GeocodeCache - the cache of location lookups
+     */
+    public GeocodeCache getGeocodeCache() {
+        return geocodeCache;
+    }
 
     /**
      * Returns coordinates for a location.
      *
      * @param loc Name of the location for which coordinates should be fetched.
-     * @return String - coordinates for a location
-     * @throws MalformedURLException If there is a problem with the location URL
-     * format.
-     * @throws IOException If an I/O error occurs while fetching the location
+     * @return Location - the resolved name and coordinates of a location
      */
     @Override
-    public String lookUpLocation(String loc) {
-        try {
-            URL url = new URL(URL_LOC + loc + "&limit=5&appid=" + API_KEY);
-            HttpURLConnection con = (HttpURLConnection) url.openConnection();
-            con.setRequestMethod("GET");
-
-            StringBuilder response;
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(con.getInputStream()))) {
-                response = new StringBuilder();
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    response.append(line);
-                }
-            }
-
-            Gson gson = new Gson();
-            JsonArray array = gson.fromJson(response.toString(), JsonArray.class);
-
-            if (array.size() > 0) {
-                JsonObject location = array.get(0).getAsJsonObject();
-                String name = location.get("name").getAsString();
-                double lat = location.get("lat").getAsDouble();
-                double lon = location.get("lon").getAsDouble();
+    public Location lookUpLocation(String loc) {
+        return await(lookUpLocationAsync(loc));
+    }
 
-                return lat + "," + lon + "," + name;
+    /**
+     * Returns coordinates for a location without blocking. Results are
+     * served from the geocoding cache or the local geocoder when possible.
+     *
+     * @param loc Name of the location for which coordinates should be fetched.
+     * @return CompletableFuture completing with the location, or with null if
+     * the location was not found.
+     */
+    @Override
+    public CompletableFuture<Location> lookUpLocationAsync(String loc) {
+        Location cached = geocodeCache.get(loc);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        if (geocodeCache.isKnownMissing(loc)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (localGeocoder != null) {
+            Location local = localGeocoder.lookUpLocation(loc);
+            if (local != null) {
+                return CompletableFuture.completedFuture(local);
             }
-        } catch (MalformedURLException ex) {
-            Logger.getLogger(DataFetcher.class.getName()).log(Level.SEVERE, null, ex);
-        } catch (IOException ex) {
-            Logger.getLogger(DataFetcher.class.getName()).log(Level.SEVERE, null, ex);
         }
-        return null;
+        String query = URLEncoder.encode(loc.trim(), StandardCharsets.UTF_8);
+        return IN_FLIGHT.join("GEO:" + GeocodeCache.normalise(loc), () ->
+                send(URL_LOC + query + "&limit=5&appid=" + API_KEY, ResponseDecoder::decodeLocation)
+                        .thenApply(location -> {
+                            if (location != null) {
+                                geocodeCache.put(loc, location);
+                            } else {
+                                geocodeCache.putMissing(loc);
+                            }
+                            return location;
+                        }));
+    }
+
+    /**
+     * Returns every location matching a name from the geocoding API, without
+     * caching. Cancelling the returned future cancels the request.
+     *
+     * @param loc Name of the location for which coordinates should be fetched.
+     * @return CompletableFuture completing with at most five locations.
+     */
+    @Override
+    public CompletableFuture<List<Location>> lookUpLocationsAsync(String loc) {
+        String query = URLEncoder.encode(loc.trim(), StandardCharsets.UTF_8);
+        return send(URL_LOC + query + "&limit=5&appid=" + API_KEY, ResponseDecoder::decodeLocations);
     }
 
     /**
@@ -84,66 +235,70 @@ public class DataFetcher implements iAPI {
      *
      * @param lat The latitude of the location.
      * @param lon The longitude of the location.
-     * @return String - the current weather for the given coordinates
-     * (temperature, description, precipitation, windSpeed, weatherId and
-     * iconUrl)
-     * @throws MalformedURLException If there is a problem with the coordinates
-     * URL format.
-     * @throws IOException If an I/O error occurs while fetching the current
-     * weather data
+     * @return CurrentConditions - the current weather for the given
+     * coordinates (temperature, description, precipitation, windSpeed,
+     * weatherId and icon)
      */
     @Override
-    public String getCurrentWeather(double lat, double lon) {
-        try {
-            URL url = new URL(URL_COORD + lat + "&lon=" + lon + "&appid=" + API_KEY + "&units=metric");
-            HttpURLConnection con = (HttpURLConnection) url.openConnection();
-            con.setRequestMethod("GET");
-
-            StringBuilder response;
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(con.getInputStream()))) {
-                response = new StringBuilder();
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    response.append(line);
-                }
-            }
-
-            Gson gson = new Gson();
-            JsonObject jsonObj = gson.fromJson(response.toString(), JsonObject.class);
-
-            JsonArray weatherArray = jsonObj.getAsJsonArray("weather");
-            JsonObject weatherObj = weatherArray.get(0).getAsJsonObject();
-
-            String desc = weatherObj.get("description").getAsString();
-            String id = weatherObj.get("id").getAsString();
-            String icon = weatherObj.get("icon").getAsString();
-            String iconUrl = URL_ICON + icon + "@2x.png";
-            
-            System.out.println("DataFetcher current weather iconUrl: " + iconUrl);
+    public CurrentConditions getCurrentWeather(double lat, double lon) {
+        return await(getCurrentWeatherAsync(lat, lon));
+    }
 
-            JsonObject main = jsonObj.getAsJsonObject("main");
-            double temp = main.get("temp").getAsDouble();
+    /**
+     * Returns the current weather for the given coordinates without blocking.
+     *
+     * @param lat The latitude of the location.
+     * @param lon The longitude of the location.
+     * @return CompletableFuture completing with the current weather for the
+     * given coordinates.
+     */
+    @Override
+    public CompletableFuture<CurrentConditions> getCurrentWeatherAsync(double lat, double lon) {
+        return cached(ResponseCache.Endpoint.CURRENT, lat, lon,
+                URL_COORD + lat + "&lon=" + lon + "&appid=" + API_KEY + "&units=metric",
+                ResponseDecoder::decodeCurrentWeather);
+    }
 
-            JsonObject rain = jsonObj.getAsJsonObject("rain");
-            double precip = 0.0;
-            if (rain != null && rain.has("1h")) {
-                precip = rain.get("1h").getAsDouble();
+    /**
+     * Returns the current weather of many cities without blocking. The
+     * cities are requested in groups of 20, the most the group endpoint
+     * accepts, so n cities take ceil(n / 20) requests. A group that fails or
+     * does not answer within the request deadline is left out of the result,
+     * without affecting the other groups.
+     *
+     * @param cityIds The OpenWeatherMap ids of the cities.
+     * @return CompletableFuture completing with the current weather of the
+     * cities of the groups that succeeded, by city id.
+     */
+    @Override
+    public CompletableFuture<Map<Long, CurrentConditions>> getCurrentWeatherAsync(Collection<Long> cityIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(cityIds));
+        List<CompletableFuture<List<CurrentConditions>>> groups = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += GROUP_SIZE) {
+            StringJoiner group = new StringJoiner(",");
+            for (Long id : ids.subList(from, Math.min(from + GROUP_SIZE, ids.size()))) {
+                group.add(id.toString());
             }
-
-            JsonObject wind = jsonObj.getAsJsonObject("wind");
-            double windSp = wind.get("speed").getAsDouble();
-            double windDeg = wind.get("deg").getAsDouble();
-
-            return temp + "," + desc + "," + precip + "," + windSp + "," + windDeg + "," + id + "," + iconUrl;
-
-        } catch (MalformedURLException ex) {
-            Logger.getLogger(DataFetcher.class.getName()).log(Level.SEVERE, null, ex);
-        } catch (IOException ex) {
-            Logger.getLogger(DataFetcher.class.getName()).log(Level.SEVERE, null, ex);
+            groups.add(send(URL_GROUP + group + "&appid=" + API_KEY + "&units=metric",
+                    ResponseDecoder::decodeGroup)
+                    .orTimeout(requestTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .exceptionally(ex -> {
+                        Logger.getLogger(DataFetcher.class.getName()).log(Level.WARNING,
+                                "Requesting the group " + group + " failed", ex);
+                        return List.of();
+                    }));
         }
-        return null;
+        return CompletableFuture.allOf(groups.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            Map<Long, CurrentConditions> result = new LinkedHashMap<>();
+            for (CompletableFuture<List<CurrentConditions>> group : groups) {
+                for (CurrentConditions conditions : group.join()) {
+                    result.put(conditions.getCityId(), conditions);
+                }
+            }
+            return result;
+        });
     }
-    
+
     /**
      * Converts unix timestamps to dates and returns them as a String.
      *
@@ -161,61 +316,27 @@ public class DataFetcher implements iAPI {
      *
      * @param lat The latitude of the location.
      * @param lon The longitude of the location.
-     * @return String - the 16 days daily forecast for the given coordinates
-     * (Date, IconPath, MinTemp and MaxTemp)
-     * @throws MalformedURLException If there is a problem with the forecast URL
-     * format.
-     * @throws IOException If an I/O error occurs while fetching the forecast
-     * data.
+     * @return List - the 7 days daily forecast for the given coordinates
+     * (date, icon, minTemp and maxTemp)
      */
     @Override
-    public String getForecast(double lat, double lon) {
-        try {
-            URL forecastUrl = new URL(URL_DAILY_FORECAST + lat + "&lon=" + lon + "&cnt=7" + "&appid=" + API_KEY + "&units=metric");
-            HttpURLConnection con = (HttpURLConnection) forecastUrl.openConnection();
-            con.setRequestMethod("GET");
-
-            StringBuilder response;
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(con.getInputStream()))) {
-                response = new StringBuilder();
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    response.append(line);
-                }
-            }
-
-            Gson gson = new Gson();
-            JsonObject jsonObj = gson.fromJson(response.toString(), JsonObject.class);
-
-            JsonArray forecastArray = jsonObj.getAsJsonArray("list");
-            StringBuilder result = new StringBuilder();
-
-            for (JsonElement elem : forecastArray) {
-                JsonObject dayForecast = elem.getAsJsonObject();
-                
-                long timeStamp = dayForecast.get("dt").getAsLong();
-                String date = unixToString(timeStamp);
-                        
-                String icon = dayForecast.getAsJsonArray("weather").get(0).getAsJsonObject().get("icon").getAsString();
-                String iconUrl = URL_ICON + icon + "@2x.png";
-                String minTemp = dayForecast.getAsJsonObject("temp").get("min").getAsString();
-                String maxTemp = dayForecast.getAsJsonObject("temp").get("max").getAsString();
-
-                System.out.println("DataFetcher getForecast iconUrl: " + iconUrl);
-                
-                String dayForecastData = "Date: " + date + ", IconPath: " + iconUrl + ", MinTemp: " + minTemp + ", MaxTemp: " + maxTemp + "\n";
-                result.append(dayForecastData);
-            }
-
-            return result.toString();
-
-        } catch (MalformedURLException ex) {
-            Logger.getLogger(DataFetcher.class.getName()).log(Level.SEVERE, null, ex);
-        } catch (IOException ex) {
-            Logger.getLogger(DataFetcher.class.getName()).log(Level.SEVERE, null, ex);
-        }
+    public List<DailyForecastEntry> getForecast(double lat, double lon) {
+        return await(getForecastAsync(lat, lon));
+    }
 
-        return null;
+    /**
+     * Returns 7 days daily forecast for the given coordinates without
+     * blocking.
+     *
+     * @param lat The latitude of the location.
+     * @param lon The longitude of the location.
+     * @return CompletableFuture completing with the daily forecast.
+     */
+    @Override
+    public CompletableFuture<List<DailyForecastEntry>> getForecastAsync(double lat, double lon) {
+        return cached(ResponseCache.Endpoint.DAILY, lat, lon,
+                URL_DAILY_FORECAST + lat + "&lon=" + lon + "&cnt=7" + "&appid=" + API_KEY + "&units=metric",
+                ResponseDecoder::decodeDailyForecast);
     }
 
     /**
@@ -223,62 +344,130 @@ public class DataFetcher implements iAPI {
      *
      * @param lat The latitude of the location.
      * @param lon The longitude of the location.
-     * @return String - the hourly forecast for the given coordinates (hour,
-     * iconPath, temp, windSpeed, precipitation)
-     * @throws MalformedURLException If there is a problem with the hourly
-     * forecast URL format.
-     * @throws IOException If an I/O error occurs while fetching the hourly
-     * forecast data.
+     * @return List - the hourly forecast for the given coordinates (hour,
+     * icon, temp, windSpeed, windDeg, precipitation)
      */
-    public String getHourlyForecast(double lat, double lon) {
-        try {
-            URL forecastUrl = new URL(URL_HOURLY_FORECAST + lat + "&lon=" + lon + "&appid=" + API_KEY + "&units=metric");
-            HttpURLConnection con = (HttpURLConnection) forecastUrl.openConnection();
-            con.setRequestMethod("GET");
-
-            StringBuilder response;
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(con.getInputStream()))) {
-                response = new StringBuilder();
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    response.append(line);
-                }
-            }
+    @Override
+    public List<HourlyForecastEntry> getHourlyForecast(double lat, double lon) {
+        return await(getHourlyForecastAsync(lat, lon));
+    }
 
-            Gson gson = new Gson();
-            JsonObject jsonObj = gson.fromJson(response.toString(), JsonObject.class);
+    /**
+     * Returns hourly forecast for the given coordinates without blocking.
+     *
+     * @param lat The latitude of the location.
+     * @param lon The longitude of the location.
+     * @return CompletableFuture completing with the hourly forecast.
+     */
+    @Override
+    public CompletableFuture<List<HourlyForecastEntry>> getHourlyForecastAsync(double lat, double lon) {
+        return cached(ResponseCache.Endpoint.HOURLY, lat, lon,
+                URL_HOURLY_FORECAST + lat + "&lon=" + lon + "&appid=" + API_KEY + "&units=metric",
+                ResponseDecoder::decodeHourlyForecast);
+    }
 
-            JsonArray forecastArray = jsonObj.getAsJsonArray("list");
-            StringBuilder result = new StringBuilder();
+    /**
+     * Returns a response from the response cache, or requests and decodes it
+     * and stores it in the cache. Concurrent callers that miss the cache for
+     * the same endpoint and coordinates share one request.
+     *
+     * @param endpoint The requested endpoint.
+     * @param lat The latitude of the location.
+     * @param lon The longitude of the location.
+     * @param url The URL to request on a cache miss.
+     * @param decoder Decodes the response body.
+     * @return CompletableFuture completing with the decoded response.
+     */
+    <T> CompletableFuture<T> cached(ResponseCache.Endpoint endpoint, double lat, double lon,
+            String url, Decoder<T> decoder) {
+        T cached = responseCache.get(endpoint, lat, lon);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return IN_FLIGHT.join(responseCache.key(endpoint, lat, lon), () ->
+                send(url, decoder).thenApply(result -> {
+                    responseCache.put(endpoint, lat, lon, result);
+                    return result;
+                }));
+    }
 
-            for (JsonElement elem : forecastArray) {
-                JsonObject hourForecast = elem.getAsJsonObject();
+    /**
+     * Returns the URL of an OpenWeatherMap weather icon.
+     *
+     * @param icon The icon code, e.g. "10d".
+     * @return String - the URL of the icon
+     */
+    static String iconUrl(String icon) {
+        return URL_ICON + icon + "@2x.png";
+    }
 
-                String hour = hourForecast.get("dt_txt").getAsString();
-                String icon = hourForecast.getAsJsonArray("weather").get(0).getAsJsonObject().get("icon").getAsString();
-                String iconUrl = URL_ICON + icon + "@2x.png";
-                String temp = hourForecast.getAsJsonObject("main").get("temp").getAsString();
-                String windSpeed = hourForecast.getAsJsonObject("wind").get("speed").getAsString();
-                String windDeg = hourForecast.getAsJsonObject("wind").get("deg").getAsString();
-                String precipitation = "0"; // Initial value if no rain data available
-                if (hourForecast.has("rain") && hourForecast.getAsJsonObject("rain").has("1h")) {
-                    precipitation = hourForecast.getAsJsonObject("rain").get("1h").getAsString();
+    /**
+     * Sends a GET request through the shared HttpClient and decodes the
+     * response body while it is streamed in. The decoding waits for the body
+     * on one of a fixed number of decoder threads, so however many responses
+     * are outstanding, at most that many threads wait for bodies; further
+     * responses wait in the queue of the decoders until one is free.
+     *
+     * @param url The URL to request.
+     * @param decoder Decodes the response body.
+     * @return CompletableFuture completing with the decoded response, or
+     * exceptionally if the request failed, timed out, the server did not
+     * answer with status 200 or the body could not be decoded.
+     */
+    private <T> CompletableFuture<T> send(String url, Decoder<T> decoder) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(requestTimeout)
+                    .GET()
+                    .build();
+        } catch (IllegalArgumentException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        CompletableFuture<HttpResponse<InputStream>> exchange
+                = HTTP_CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+        CompletableFuture<T> decoded = exchange.thenApplyAsync(response -> {
+            try (InputStream body = response.body()) {
+                if (response.statusCode() != 200) {
+                    throw new IOException("HTTP " + response.statusCode()
+                            + " from " + request.uri().getPath());
                 }
-                
-                //System.out.println("DataFetcher getHourlyForecast temp: " + temp);
-
-                String hourForecastData = "Hour: " + hour + ", IconPath: " + iconUrl + ", Temp: " + temp + ", WindSpeed: " + windSpeed + ", WindDeg: " + windDeg + ", Precipitation: " + precipitation + "\n";
-                result.append(hourForecastData);
+                return decoder.decode(new InputStreamReader(body, StandardCharsets.UTF_8));
+            } catch (IOException | RuntimeException ex) {
+                throw new CompletionException(ex);
             }
+        }, DECODER);
+        // Cancelling the result aborts the exchange on runtimes that support it
+        decoded.whenComplete((result, ex) -> {
+            if (decoded.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        return decoded;
+    }
 
-            return result.toString();
+    /**
+     * Decodes a response body.
+     *
+     * @param <T> The type of the decoded response.
+     */
+    interface Decoder<T> {
 
-        } catch (MalformedURLException ex) {
-            Logger.getLogger(DataFetcher.class.getName()).log(Level.SEVERE, null, ex);
-        } catch (IOException ex) {
-            Logger.getLogger(DataFetcher.class.getName()).log(Level.SEVERE, null, ex);
-        }
+        T decode(Reader body) throws IOException;
+    }
 
+    /**
+     * Waits for an asynchronous request to finish.
+     *
+     * @param future The request to wait for.
+     * @return The result of the request, or null if the request failed.
+     */
+    static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            Logger.getLogger(DataFetcher.class.getName()).log(Level.SEVERE, null, ex.getCause());
+        }
         return null;
     }
 }
@@ -5,79 +5,170 @@ import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * A class for managing favourite weather locations.
- * 
- * This class manages a list of favourite weather locations. It allows adding,
- * removing, checking, retrieving, and clearing favourite locations.
+ *
+ * This class manages a set of favourite weather locations, kept in the order
+ * they were added. It allows adding, removing, checking, retrieving, and
+ * clearing favourite locations. The favourites can be read and changed from
+ * any thread, and every added and removed location is reported to the
+ * registered listeners after the change. The events are queued while the
+ * favourites are locked and delivered one at a time from the queue, so the
+ * listeners get them in the order the favourites changed, even when several
+ * threads change them at once.
  *
  * @author Roosa
  */
 public class FavouritesManager {
 
-    private ArrayList<String> favourites;
+    private final Set<String> favourites = new LinkedHashSet<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<iFavouritesListener> listeners = new CopyOnWriteArrayList<>();
+    private final Queue<Runnable> events = new ConcurrentLinkedQueue<>();
+    private final Lock delivery = new ReentrantLock();
 
     /**
-     * Constructor for FavouritesManager class. Initializes an empty list of
+     * Constructor for FavouritesManager class. Initializes an empty set of
      * favourites.
      */
     public FavouritesManager() {
-        this.favourites = new ArrayList<>();
     }
 
     /**
-     * Adds a location to the list of favourites if it doesn't exist already.
+     * Registers a listener for added and removed favourites.
+     *
+     * @param listener The listener to be registered.
+     */
+    public void addListener(iFavouritesListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener The listener to be unregistered.
+     */
+    public void removeListener(iFavouritesListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Adds a location to the favourites if it doesn't exist already.
      *
-     * @param location The location to be added to the favourites list.
+     * @param location The location to be added to the favourites.
      * @return true if the location was added, false otherwise.
      */
     public boolean addFavourite(String location) {
-        if (!favourites.contains(location)) {
-            favourites.add(location);
-            return true;
+        boolean added;
+        lock.writeLock().lock();
+        try {
+            added = favourites.add(location);
+            if (added) {
+                events.add(() -> fireAdded(location));
+            }
+        } finally {
+            lock.writeLock().unlock();
         }
-        return false;
+        deliverEvents();
+        return added;
     }
 
     /**
-     * Removes a location from the list of favourites.
+     * Removes a location from the favourites.
      *
-     * @param location The location to be removed from the favourites list.
+     * @param location The location to be removed from the favourites.
      * @return true if the location was removed, false if it did not exist.
      */
     public boolean removeFavourite(String location) {
-        return favourites.remove(location);
+        boolean removed;
+        lock.writeLock().lock();
+        try {
+            removed = favourites.remove(location);
+            if (removed) {
+                events.add(() -> fireRemoved(location));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        deliverEvents();
+        return removed;
     }
 
     /**
-     * Checks if a location is in the list of favourites.
+     * Checks if a location is in the favourites.
      *
      * @param location The location to be checked.
      * @return true if the location is a favourite, false otherwise.
      */
     public boolean isFavourite(String location) {
-        return favourites.contains(location);
+        lock.readLock().lock();
+        try {
+            return favourites.contains(location);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
-     * Retrieves a copy of the list of favourite locations.
+     * Checks if there are no favourites.
+     *
+     * @return true if there are no favourites, false otherwise.
+     */
+    public boolean isEmpty() {
+        lock.readLock().lock();
+        try {
+            return favourites.isEmpty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves a copy of the favourite locations in the order they were
+     * added.
      *
      * @return ArrayList containing favourite locations.
      */
     public ArrayList<String> getFavourites() {
-        return new ArrayList<>(favourites);
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(favourites);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
-     * Clears the list of favourite locations.
+     * Clears the favourite locations.
      */
     public void clearFavourites() {
-        favourites.clear();
+        lock.writeLock().lock();
+        try {
+            for (String location : favourites) {
+                events.add(() -> fireRemoved(location));
+            }
+            favourites.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        deliverEvents();
     }
 
     /**
-     * Sets favourites from JSON format.
+     * Sets favourites from JSON format. Only the locations that were not
+     * favourites before are reported as added, and only the favourites that
+     * are not in the JSON are reported as removed.
      *
      * @param json The JSON string containing favourite locations.
      */
@@ -88,11 +179,57 @@ public class FavouritesManager {
         try {
             ArrayList<String> loadedFavourites = gson.fromJson(json, type);
             if (loadedFavourites != null) {
-                favourites.clear();
-                favourites.addAll(loadedFavourites);
+                Set<String> loaded = new LinkedHashSet<>(loadedFavourites);
+                lock.writeLock().lock();
+                try {
+                    for (String location : favourites) {
+                        if (!loaded.contains(location)) {
+                            events.add(() -> fireRemoved(location));
+                        }
+                    }
+                    for (String location : loaded) {
+                        if (!favourites.contains(location)) {
+                            events.add(() -> fireAdded(location));
+                        }
+                    }
+                    favourites.clear();
+                    favourites.addAll(loaded);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                deliverEvents();
             }
         } catch (JsonSyntaxException e) {
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Delivers the queued events in order. One thread at a time delivers,
+     * and it delivers every event queued before it finishes, so an event may
+     * be delivered on the thread of a change made at the same time.
+     */
+    private void deliverEvents() {
+        delivery.lock();
+        try {
+            Runnable event;
+            while ((event = events.poll()) != null) {
+                event.run();
+            }
+        } finally {
+            delivery.unlock();
+        }
+    }
+
+    private void fireAdded(String location) {
+        for (iFavouritesListener listener : listeners) {
+            listener.favouriteAdded(location);
+        }
+    }
+
+    private void fireRemoved(String location) {
+        for (iFavouritesListener listener : listeners) {
+            listener.favouriteRemoved(location);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package fi.tuni.prog3.weatherapp;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Refreshes the current weather of many locations at once, e.g. of all
+ * favourites. The locations are refreshed in parallel on a fixed number of
+ * threads, which bounds the number of requests in flight. Every location has
+ * its own timeout, and a location that fails or times out is left out of the
+ * result instead of failing the whole refresh.
+ *
+ * Refreshing a location the first time also resolves its OpenWeatherMap city
+ * id, which is remembered in the geocode cache. Locations with a known city
+ * id are then refreshed together through the group endpoint, which serves up
+ * to 20 cities per request. Every group of 20 has its own timeout, and a
+ * group that fails only leaves out its own cities.
+ *
+ * @author Melina
+ */
+public class FavouritesRefresher {
+
+    private static final int DEFAULT_PARALLELISM = 6;
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+
+    private final iAsyncAPI api;
+    private final GeocodeCache cityIds;
+    private final ExecutorService executor;
+    private final Duration timeout;
+
+    /**
+     * Constructs a refresher that refreshes six locations at a time, with a
+     * timeout of five seconds per location.
+     *
+     * @param api The API the weather is fetched from.
+     * @param cityIds The cache the city ids of the locations are kept in.
+     */
+    public FavouritesRefresher(iAsyncAPI api, GeocodeCache cityIds) {
+        this(api, cityIds, DEFAULT_PARALLELISM, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Constructs a refresher.
+     *
+     * @param api The API the weather is fetched from.
+     * @param cityIds The cache the city ids of the locations are kept in.
+     * @param parallelism The maximum number of locations refreshed at a time.
+     * @param timeout How long one location, or one group of locations, may
+     * take to refresh.
+     */
+    public FavouritesRefresher(iAsyncAPI api, GeocodeCache cityIds, int parallelism, Duration timeout) {
+        this.api = api;
+        this.cityIds = cityIds;
+        this.timeout = timeout;
+        this.executor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "favourites-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Refreshes the current weather of the given locations.
+     *
+     * @param locations The names of the locations.
+     * @return CompletableFuture completing with the current weather of every
+     * location that was refreshed in time, in the order of the locations.
+     */
+    public CompletableFuture<Map<String, CurrentConditions>> refreshAll(Collection<String> locations) {
+        Map<String, Long> grouped = new LinkedHashMap<>();
+        Map<String, CompletableFuture<CurrentConditions>> refreshes = new LinkedHashMap<>();
+        for (String location : locations) {
+            Location known = cityIds.get(location);
+            if (known != null && known.getCityId() != 0) {
+                grouped.put(location, known.getCityId());
+            } else {
+                refreshes.put(location, CompletableFuture.supplyAsync(() -> refresh(location), executor));
+            }
+        }
+        CompletableFuture<Map<Long, CurrentConditions>> group = refreshGroup(grouped.values());
+
+        List<CompletableFuture<?>> all = new ArrayList<>(refreshes.values());
+        all.add(group);
+        return CompletableFuture.allOf(all.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            Map<String, CurrentConditions> result = new LinkedHashMap<>();
+            for (String location : locations) {
+                CurrentConditions conditions = grouped.containsKey(location)
+                        ? group.join().get(grouped.get(location))
+                        : refreshes.get(location).join();
+                if (conditions != null) {
+                    result.put(location, conditions);
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Refreshes the locations with known city ids through the group
+     * endpoint, one group of at most 20 cities per request.
+     *
+     * @return CompletableFuture completing with the current weather by city
+     * id of the cities whose group was refreshed in time.
+     */
+    private CompletableFuture<Map<Long, CurrentConditions>> refreshGroup(Collection<Long> ids) {
+        List<Long> all = new ArrayList<>(ids);
+        List<CompletableFuture<Map<Long, CurrentConditions>>> groups = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += DataFetcher.GROUP_SIZE) {
+            List<Long> group = all.subList(from, Math.min(from + DataFetcher.GROUP_SIZE, all.size()));
+            groups.add(api.getCurrentWeatherAsync(group)
+                    .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .exceptionally(ex -> {
+                        Logger.getLogger(FavouritesRefresher.class.getName()).log(Level.WARNING,
+                                "Refreshing " + group.size() + " cities failed", ex);
+                        return Map.of();
+                    }));
+        }
+        return CompletableFuture.allOf(groups.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            Map<Long, CurrentConditions> result = new LinkedHashMap<>();
+            for (CompletableFuture<Map<Long, CurrentConditions>> group : groups) {
+                result.putAll(group.join());
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Refreshes one location, waiting at most the timeout. Waiting keeps the
+     * thread busy, so at most as many locations as there are threads are in
+     * flight.
+     *
+     * @return The current weather, or null if it could not be refreshed.
+     */
+    private CurrentConditions refresh(String location) {
+        CompletableFuture<CurrentConditions> request = api.lookUpLocationAsync(location)
+                .thenCompose(found -> {
+                    if (found == null) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    return api.getCurrentWeatherAsync(found.getLatitude(), found.getLongitude())
+                            .thenApply(conditions -> {
+                                if (conditions != null && conditions.getCityId() != 0) {
+                                    cityIds.put(location, found.withCityId(conditions.getCityId()));
+                                }
+                                return conditions;
+                            });
+                });
+        try {
+            return request.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            request.cancel(true);
+            Logger.getLogger(FavouritesRefresher.class.getName()).log(Level.WARNING,
+                    "Refreshing {0} timed out", location);
+        } catch (ExecutionException ex) {
+            Logger.getLogger(FavouritesRefresher.class.getName()).log(Level.WARNING,
+                    "Refreshing " + location + " failed", ex.getCause());
+        } catch (InterruptedException ex) {
+            request.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
@@ -4,9 +4,14 @@ import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 /**
  * Manages file input/output for the WeatherApp. Handles reading from and
@@ -72,21 +77,19 @@ public class FileManager implements iReadAndWriteToFile {
 
     /**
      * Writes the favourites and program status (current location and favourites)
-     * as JSON into the specified file.
+     * as JSON into the specified file. The JSON is first written to a
+     * temporary file and flushed to the disk, and the temporary file then
+     * replaces the file, so a crash never leaves an empty or partially
+     * written file behind.
      *
      * @param fileName The name of the file to write to.
      * @return true if the write operation was successful, otherwise false.
      * @throws Exception if there's an issue writing to the file.
      */
     @Override
-    public boolean writeToFile(String fileName) throws Exception {
+    public synchronized boolean writeToFile(String fileName) throws Exception {
         try {
             Path path = Paths.get(fileName);
-            // Before writing the data, it is ensured that there is no wrong 
-            // data left in the file by clearing the contents of the file by 
-            // writing an empty string
-            Files.writeString(path, "");
-
             JsonObject jsonObject = new JsonObject();
 
             String favouritesAsJson = convertFavouritesToJSON();
@@ -97,7 +100,16 @@ public class FileManager implements iReadAndWriteToFile {
 
             String jsonData = jsonObject.toString();
             System.out.println("writeToFile jsonData: " + jsonData);
-            Files.writeString(path, jsonData);
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(jsonData.getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
             return true;
         } catch (IOException e) {
             throw new Exception("Error writing file: " + e.getMessage());
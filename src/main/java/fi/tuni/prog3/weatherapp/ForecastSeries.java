@@ -0,0 +1,352 @@
+package fi.tuni.prog3.weatherapp;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable hourly forecast stored by column: the hours as epoch seconds,
+ * the temperatures, wind speeds, wind directions and precipitations as floats
+ * and the weather icons as short condition codes. An hour takes 26 bytes, a
+ * tenth of a WeatherData object with its strings, and the aggregations are
+ * plain loops over primitive arrays. The values keep the precision of a
+ * float, which is more than the hundredths OpenWeatherMap gives.
+ *
+ * A range of a series is a view sharing the arrays of the series, so taking
+ * one copies nothing.
+ *
+ * @author Melina
+ */
+public final class ForecastSeries {
+
+    /**
+     * A series with no hours.
+     */
+    public static final ForecastSeries EMPTY = new ForecastSeries(new long[0], new float[0],
+            new float[0], new float[0], new float[0], new short[0], 0, 0);
+
+    /**
+     * The condition code of an hour that has no known icon.
+     */
+    public static final short NO_CONDITION = -1;
+
+    private final long[] times;
+    private final float[] temperatures;
+    private final float[] windSpeeds;
+    private final float[] windDirections;
+    private final float[] precipitations;
+    private final short[] conditions;
+    private final int offset;
+    private final int size;
+
+    private ForecastSeries(long[] times, float[] temperatures, float[] windSpeeds,
+            float[] windDirections, float[] precipitations, short[] conditions, int offset, int size) {
+        this.times = times;
+        this.temperatures = temperatures;
+        this.windSpeeds = windSpeeds;
+        this.windDirections = windDirections;
+        this.precipitations = precipitations;
+        this.conditions = conditions;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    /**
+     * Stores an hourly forecast as returned by DataFetcher.
+     *
+     * @param entries The hours of the forecast, in order.
+     * @return The series.
+     */
+    public static ForecastSeries of(List<HourlyForecastEntry> entries) {
+        int size = entries.size();
+        long[] times = new long[size];
+        float[] temperatures = new float[size];
+        float[] windSpeeds = new float[size];
+        float[] windDirections = new float[size];
+        float[] precipitations = new float[size];
+        short[] conditions = new short[size];
+        for (int i = 0; i < size; i++) {
+            HourlyForecastEntry entry = entries.get(i);
+            times[i] = entry.getTime();
+            temperatures[i] = (float) entry.getTemperature();
+            windSpeeds[i] = (float) entry.getWindSpeed();
+            windDirections[i] = (float) entry.getWindDirection();
+            precipitations[i] = (float) entry.getPrecipitation();
+            conditions[i] = conditionCode(entry.getIcon());
+        }
+        return new ForecastSeries(times, temperatures, windSpeeds, windDirections,
+                precipitations, conditions, 0, size);
+    }
+
+    /**
+     * Returns the number of hours in the series.
+     *
+     * @return The number of hours.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the forecasted hour as a unix timestamp in seconds.
+     *
+     * @param index The position of the hour in the series.
+     * @return The hour.
+     */
+    public long getTime(int index) {
+        return times[position(index)];
+    }
+
+    public float getTemperature(int index) {
+        return temperatures[position(index)];
+    }
+
+    public float getWindSpeed(int index) {
+        return windSpeeds[position(index)];
+    }
+
+    public float getWindDirection(int index) {
+        return windDirections[position(index)];
+    }
+
+    public float getPrecipitation(int index) {
+        return precipitations[position(index)];
+    }
+
+    /**
+     * Returns the condition code of an hour, which stands for an
+     * OpenWeatherMap icon code: the number of the icon times two, plus one
+     * for the night icons.
+     *
+     * @param index The position of the hour in the series.
+     * @return The condition code, or NO_CONDITION.
+     */
+    public short getCondition(int index) {
+        return conditions[position(index)];
+    }
+
+    /**
+     * Returns the OpenWeatherMap icon code of an hour, e.g. "10d".
+     *
+     * @param index The position of the hour in the series.
+     * @return The icon code, or an empty string if the hour has no icon.
+     */
+    public String getIcon(int index) {
+        return iconCode(getCondition(index));
+    }
+
+    /**
+     * Checks whether an hour of this series has the same values as an hour
+     * of another series.
+     *
+     * @param index The position of the hour in this series.
+     * @param other The other series.
+     * @param otherIndex The position of the hour in the other series.
+     * @return true if the hours have the same time, values and condition.
+     */
+    public boolean sameHour(int index, ForecastSeries other, int otherIndex) {
+        int i = position(index);
+        int j = other.position(otherIndex);
+        return times[i] == other.times[j]
+                && Float.compare(temperatures[i], other.temperatures[j]) == 0
+                && Float.compare(windSpeeds[i], other.windSpeeds[j]) == 0
+                && Float.compare(windDirections[i], other.windDirections[j]) == 0
+                && Float.compare(precipitations[i], other.precipitations[j]) == 0
+                && conditions[i] == other.conditions[j];
+    }
+
+    /**
+     * Returns the hours from one position up to another.
+     *
+     * @param from The position of the first hour, inclusive.
+     * @param to The position after the last hour, exclusive.
+     * @return A series sharing the data of this one.
+     * @throws IndexOutOfBoundsException If the range is not within the
+     * series.
+     */
+    public ForecastSeries range(int from, int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("Range " + from + ".." + to + " of " + size + " hours");
+        }
+        return new ForecastSeries(times, temperatures, windSpeeds, windDirections,
+                precipitations, conditions, offset + from, to - from);
+    }
+
+    /**
+     * Returns the position of the first hour at or after the given time.
+     *
+     * @param time A unix timestamp in seconds.
+     * @return The position of the hour, or size() if all the hours are
+     * before the time.
+     */
+    public int indexOf(long time) {
+        int index = Arrays.binarySearch(times, offset, offset + size, time);
+        if (index < 0) {
+            return -index - 1 - offset;
+        }
+        while (index > offset && times[index - 1] == time) {
+            index--;
+        }
+        return index - offset;
+    }
+
+    /**
+     * Returns the hours within a time interval.
+     *
+     * @param from The start of the interval as a unix timestamp in seconds,
+     * inclusive.
+     * @param to The end of the interval, exclusive.
+     * @return A series sharing the data of this one.
+     */
+    public ForecastSeries between(long from, long to) {
+        int start = indexOf(from);
+        return range(start, Math.max(start, indexOf(to)));
+    }
+
+    /**
+     * Returns the lowest temperature of the series.
+     *
+     * @return The temperature, or NaN if the series is empty.
+     */
+    public double minTemperature() {
+        if (size == 0) {
+            return Double.NaN;
+        }
+        float min = temperatures[offset];
+        for (int i = offset + 1; i < offset + size; i++) {
+            min = Math.min(min, temperatures[i]);
+        }
+        return min;
+    }
+
+    /**
+     * Returns the highest temperature of the series.
+     *
+     * @return The temperature, or NaN if the series is empty.
+     */
+    public double maxTemperature() {
+        if (size == 0) {
+            return Double.NaN;
+        }
+        float max = temperatures[offset];
+        for (int i = offset + 1; i < offset + size; i++) {
+            max = Math.max(max, temperatures[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Returns the mean temperature of the series.
+     *
+     * @return The temperature, or NaN if the series is empty.
+     */
+    public double meanTemperature() {
+        double sum = 0;
+        for (int i = offset; i < offset + size; i++) {
+            sum += temperatures[i];
+        }
+        return sum / size;
+    }
+
+    /**
+     * Returns the precipitation of all the hours together.
+     *
+     * @return The precipitation in millimetres.
+     */
+    public double totalPrecipitation() {
+        double sum = 0;
+        for (int i = offset; i < offset + size; i++) {
+            sum += precipitations[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the highest precipitation of an hour.
+     *
+     * @return The precipitation in millimetres, or 0 if the series is empty.
+     */
+    public double maxPrecipitation() {
+        float max = 0;
+        for (int i = offset; i < offset + size; i++) {
+            max = Math.max(max, precipitations[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Returns the highest wind speed of the series.
+     *
+     * @return The wind speed, or 0 if the series is empty.
+     */
+    public double maxWindSpeed() {
+        float max = 0;
+        for (int i = offset; i < offset + size; i++) {
+            max = Math.max(max, windSpeeds[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Converts an OpenWeatherMap icon code, e.g. "10d", to a condition code.
+     *
+     * @param icon The icon code.
+     * @return The condition code, or NO_CONDITION if the code is not an icon
+     * code.
+     */
+    static short conditionCode(String icon) {
+        if (icon == null || icon.length() != 3 || !Character.isDigit(icon.charAt(0))
+                || !Character.isDigit(icon.charAt(1))) {
+            return NO_CONDITION;
+        }
+        int number = (icon.charAt(0) - '0') * 10 + icon.charAt(1) - '0';
+        switch (icon.charAt(2)) {
+            case 'd':
+                return (short) (number * 2);
+            case 'n':
+                return (short) (number * 2 + 1);
+            default:
+                return NO_CONDITION;
+        }
+    }
+
+    /**
+     * Converts a condition code back to an OpenWeatherMap icon code.
+     *
+     * @param condition The condition code.
+     * @return The icon code, or an empty string for NO_CONDITION.
+     */
+    static String iconCode(short condition) {
+        if (condition < 0) {
+            return "";
+        }
+        int number = condition / 2;
+        return (number < 10 ? "0" : "") + number + (condition % 2 == 0 ? "d" : "n");
+    }
+
+    /**
+     * Checks that the columns exist and hold every hour of the series. A
+     * series read by Gson, e.g. in a stored LocationSnapshot, is not made by
+     * the factory method and may not.
+     */
+    boolean isConsistent() {
+        if (times == null || temperatures == null || windSpeeds == null || windDirections == null
+                || precipitations == null || conditions == null || offset < 0 || size < 0) {
+            return false;
+        }
+        int end = offset + size;
+        return times.length >= end && temperatures.length >= end && windSpeeds.length >= end
+                && windDirections.length >= end && precipitations.length >= end
+                && conditions.length >= end;
+    }
+
+    private int position(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Hour " + index + " of " + size + " hours");
+        }
+        return offset + index;
+    }
+}
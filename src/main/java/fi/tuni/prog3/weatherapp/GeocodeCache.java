@@ -0,0 +1,243 @@
+package fi.tuni.prog3.weatherapp;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.reflect.TypeToken;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * A cache for geocoding results. The coordinates of a location never change,
+ * so found locations are kept in memory and in a file that survives restarts.
+ * The file is written in the background by a WriteBehindPersister, so a burst
+ * of new locations causes one write and storing a location never waits for
+ * the disk. A cache with a file is closed when it is no longer used, which
+ * writes what is left and stops the background thread. Locations that were
+ * not found are remembered in memory only, for a short time.
+ *
+ * Location names are normalised before they are used as keys, so that for
+ * example "Tampere", "tampere " and "TAMPERE" share one entry, as do
+ * "Jyväskylä" and "Jyvaskyla".
+ *
+ * @author Melina
+ */
+public class GeocodeCache implements iReadAndWriteToFile, AutoCloseable {
+
+    private static final long DEFAULT_NEGATIVE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern SPACED_COMMA = Pattern.compile("\\s*,\\s*");
+
+    private final Map<String, Location> found = new ConcurrentHashMap<>();
+    private final Map<String, Long> notFoundUntil = new ConcurrentHashMap<>();
+    private final long negativeTtlMillis;
+    private final WriteBehindPersister persister;
+
+    /**
+     * Constructs a cache that is kept in memory only.
+     */
+    public GeocodeCache() {
+        this(null, DEFAULT_NEGATIVE_TTL_MILLIS);
+    }
+
+    /**
+     * Constructs a cache that is stored in the given file. Entries already in
+     * the file are loaded immediately.
+     *
+     * @param file The file the found locations are stored in, or null to keep
+     * the cache in memory only.
+     */
+    public GeocodeCache(Path file) {
+        this(file, DEFAULT_NEGATIVE_TTL_MILLIS);
+    }
+
+    /**
+     * Constructs a cache that is stored in the given file and remembers
+     * locations that were not found for the given time.
+     *
+     * @param file The file the found locations are stored in, or null to keep
+     * the cache in memory only.
+     * @param negativeTtlMillis How long a location that was not found is
+     * remembered, in milliseconds.
+     */
+    public GeocodeCache(Path file, long negativeTtlMillis) {
+        this.negativeTtlMillis = negativeTtlMillis;
+        this.persister = file == null ? null : new WriteBehindPersister(this, file.toString());
+        if (file != null) {
+            readFromFile(file.toString());
+        }
+    }
+
+    /**
+     * Normalises a location name into a cache key. The name is trimmed,
+     * case-folded and stripped of diacritics, runs of whitespace are collapsed
+     * and spaces around commas are removed.
+     *
+     * @param name The location name.
+     * @return The normalised name.
+     */
+    public static String normalise(String name) {
+        String decomposed = Normalizer.normalize(name.trim(), Normalizer.Form.NFD);
+        String plain = DIACRITICS.matcher(decomposed).replaceAll("");
+        String folded = plain.toLowerCase(Locale.ROOT);
+        String collapsed = WHITESPACE.matcher(folded).replaceAll(" ");
+        return SPACED_COMMA.matcher(collapsed).replaceAll(",");
+    }
+
+    /**
+     * Returns the cached coordinates of a location.
+     *
+     * @param name The location name.
+     * @return The location, or null if the location is not cached.
+     */
+    public Location get(String name) {
+        return found.get(normalise(name));
+    }
+
+    /**
+     * Checks whether the location was recently looked up and not found.
+     *
+     * @param name The location name.
+     * @return true if the location is known not to exist, otherwise false.
+     */
+    public boolean isKnownMissing(String name) {
+        String key = normalise(name);
+        Long until = notFoundUntil.get(key);
+        if (until == null) {
+            return false;
+        }
+        if (until <= System.currentTimeMillis()) {
+            notFoundUntil.remove(key, until);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Stores a found location. The location is also stored under its
+     * resolved name, so that a later search for the resolved name is served
+     * from the cache too. Storing a location again with its city id replaces
+     * the entry of the resolved name as well.
+     *
+     * @param name The location name that was searched for.
+     * @param location The location that was found.
+     */
+    public void put(String name, Location location) {
+        String key = normalise(name);
+        notFoundUntil.remove(key);
+        found.put(key, location);
+        found.merge(normalise(location.getName()), location, (old, stored)
+                -> old.withCityId(stored.getCityId()).equals(stored) ? stored : old);
+        if (persister != null) {
+            persister.changed();
+        }
+    }
+
+    /**
+     * Remembers that a location was not found.
+     *
+     * @param name The location name that was searched for.
+     */
+    public void putMissing(String name) {
+        notFoundUntil.put(normalise(name), System.currentTimeMillis() + negativeTtlMillis);
+    }
+
+    /**
+     * Returns every found location in the cache.
+     *
+     * @return A copy of the cached locations.
+     */
+    public Collection<Location> getLocations() {
+        return List.copyOf(found.values());
+    }
+
+    /**
+     * Returns the number of found locations in the cache.
+     *
+     * @return The number of cached locations.
+     */
+    public int size() {
+        return found.size();
+    }
+
+    /**
+     * Writes the stored locations that are waiting to be written now, e.g.
+     * when the program closes.
+     */
+    public void flush() {
+        if (persister != null) {
+            persister.flush();
+        }
+    }
+
+    /**
+     * Writes the stored locations that are waiting to be written and stops
+     * writing the file. The cache still works in memory after this.
+     */
+    @Override
+    public void close() {
+        if (persister != null) {
+            persister.close();
+        }
+    }
+
+    /**
+     * Loads stored locations from a file. This is done when the cache is
+     * constructed.
+     *
+     * @param fileName The name of the file.
+     * @return true if the file was read, otherwise false.
+     */
+    @Override
+    public boolean readFromFile(String fileName) {
+        Path source = Paths.get(fileName);
+        if (!Files.exists(source)) {
+            return false;
+        }
+        try {
+            String jsonData = Files.readString(source);
+            Type type = new TypeToken<HashMap<String, Location>>() {
+            }.getType();
+            Map<String, Location> loaded = new Gson().fromJson(jsonData, type);
+            if (loaded != null) {
+                found.putAll(loaded);
+            }
+            return true;
+        } catch (IOException | JsonSyntaxException ex) {
+            Logger.getLogger(GeocodeCache.class.getName()).log(Level.WARNING, null, ex);
+            return false;
+        }
+    }
+
+    /**
+     * Writes the found locations to a file. The WriteBehindPersister of the
+     * cache calls this in the background.
+     *
+     * @param fileName The name of the file.
+     * @return true if the file was written.
+     * @throws IOException If the file can't be written.
+     */
+    @Override
+    public synchronized boolean writeToFile(String fileName) throws IOException {
+        Path target = Paths.get(fileName);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.writeString(temp, new Gson().toJson(new HashMap<>(found)));
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+}
@@ -0,0 +1,156 @@
+package fi.tuni.prog3.weatherapp;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.TextStyle;
+import java.util.Locale;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * A chart of the hourly forecast drawn on a single canvas: the temperature as
+ * a line, the precipitation as bars and the wind as arrows pointing where the
+ * wind blows, with the hours below them. However long the forecast is, the
+ * chart is one node, and redrawing it is one loop over the columns of a
+ * ForecastSeries that does not touch the scene graph.
+ *
+ * @author Melina
+ */
+public class HourlyChart extends Canvas {
+
+    static final double HOUR_WIDTH = 30;
+    private static final double TOP = 24;
+    private static final double PLOT_BOTTOM_GAP = 56;
+    private static final double ARROW_LENGTH = 14;
+    private static final double MIN_PRECIPITATION_SCALE = 2;
+    private static final Color TEMPERATURE_COLOR = Color.web("#dc143c");
+    private static final Color PRECIPITATION_COLOR = Color.web("#4169e1", 0.6);
+    private static final Color WIND_COLOR = Color.web("#333333");
+    private static final Color GRID_COLOR = Color.web("#666666", 0.3);
+    private static final Font LABEL_FONT = Font.font("System", FontWeight.BOLD, 12);
+
+    private ForecastSeries series = ForecastSeries.EMPTY;
+
+    /**
+     * Constructs an empty chart.
+     *
+     * @param height The height of the chart in pixels.
+     */
+    public HourlyChart(double height) {
+        super(0, height);
+    }
+
+    /**
+     * Shows an hourly forecast series.
+     *
+     * @param series The hours of the forecast.
+     */
+    public void setSeries(ForecastSeries series) {
+        this.series = series;
+        redraw();
+    }
+
+    /**
+     * Returns the number of hours shown.
+     *
+     * @return The number of hours.
+     */
+    public int getHourCount() {
+        return series.size();
+    }
+
+    /**
+     * Draws the chart. The scales are found first from the aggregations of
+     * the series, after which every hour is drawn in one pass: its
+     * precipitation bar, wind arrow, hour label and the segment of the
+     * temperature line leading to it. The line is stroked once at the end.
+     */
+    private void redraw() {
+        int count = series.size();
+        setWidth(count * HOUR_WIDTH);
+        double height = getHeight();
+        double plotBottom = height - PLOT_BOTTOM_GAP;
+        double arrowY = height - 36;
+        double labelY = height - 8;
+
+        double minTemperature = series.minTemperature();
+        double maxTemperature = series.maxTemperature();
+        double maxPrecipitation = Math.max(MIN_PRECIPITATION_SCALE, series.maxPrecipitation());
+        double precipitationScale = (plotBottom - TOP) / 2 / maxPrecipitation;
+
+        GraphicsContext gc = getGraphicsContext2D();
+        gc.clearRect(0, 0, getWidth(), height);
+        gc.setFont(LABEL_FONT);
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.BASELINE);
+        gc.setLineWidth(1.5);
+        gc.beginPath();
+
+        for (int i = 0; i < count; i++) {
+            double x = (i + 0.5) * HOUR_WIDTH;
+            long time = series.getTime(i);
+            double temperature = series.getTemperature(i);
+            int hour = (int) Math.floorMod(time / 3600, 24L);
+
+            if (hour == 0) {
+                gc.setStroke(GRID_COLOR);
+                gc.strokeLine(i * HOUR_WIDTH, TOP, i * HOUR_WIDTH, labelY);
+            }
+
+            double barHeight = series.getPrecipitation(i) * precipitationScale;
+            if (barHeight > 0) {
+                gc.setFill(PRECIPITATION_COLOR);
+                gc.fillRect(x - HOUR_WIDTH / 2 + 3, plotBottom - barHeight, HOUR_WIDTH - 6, barHeight);
+            }
+
+            // The wind direction tells where the wind comes from
+            double angle = Math.toRadians(series.getWindDirection(i) + 180);
+            double dx = Math.sin(angle) * ARROW_LENGTH / 2;
+            double dy = -Math.cos(angle) * ARROW_LENGTH / 2;
+            gc.setStroke(WIND_COLOR);
+            gc.strokeLine(x - dx, arrowY - dy, x + dx, arrowY + dy);
+            gc.strokeLine(x + dx, arrowY + dy, x + dx * 0.2 - dy * 0.5, arrowY + dy * 0.2 + dx * 0.5);
+            gc.strokeLine(x + dx, arrowY + dy, x + dx * 0.2 + dy * 0.5, arrowY + dy * 0.2 - dx * 0.5);
+
+            double y = temperatureY(temperature, minTemperature, maxTemperature, TOP, plotBottom);
+            if (i == 0) {
+                gc.moveTo(x, y);
+            } else {
+                gc.lineTo(x, y);
+            }
+
+            if (hour % 3 == 0) {
+                gc.setFill(TEMPERATURE_COLOR);
+                gc.fillText(Math.round(temperature) + "°", x, y - 6);
+                gc.setFill(Color.BLACK);
+                gc.fillText(hour == 0 ? dayName(time) : String.format("%02d", hour), x, labelY);
+            }
+        }
+
+        gc.setStroke(TEMPERATURE_COLOR);
+        gc.setLineWidth(2.5);
+        gc.stroke();
+    }
+
+    /**
+     * Returns the y coordinate of a temperature on the chart, the highest
+     * temperature being at the top and the lowest at the bottom. If all the
+     * temperatures are equal, they are drawn in the middle.
+     */
+    static double temperatureY(double temperature, double min, double max, double top, double bottom) {
+        if (max <= min) {
+            return (top + bottom) / 2;
+        }
+        return bottom - (temperature - min) / (max - min) * (bottom - top);
+    }
+
+    private static String dayName(long time) {
+        return LocalDateTime.ofEpochSecond(time, 0, ZoneOffset.UTC)
+                .getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.getDefault());
+    }
+}
@@ -1,20 +1,28 @@
 package fi.tuni.prog3.weatherapp;
 
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * HourlyForecast class handles fetching and storing hourly weather forecast
  * data. It communicates with DataFetcher to obtain weather information and
  * processes it to create WeatherData objects for each hourly forecast.
  *
- * This class maintains an ArrayList of WeatherData objects representing the
- * hourly forecast for a specific location.
+ * This class keeps the hourly forecast for a specific location as a
+ * ForecastSeries, and makes the WeatherData objects of the hours only when
+ * they are asked for.
  *
  * @author Melina
  */
 public class HourlyForecast {
 
-    private ArrayList<WeatherData> hourlyForecast;
+    private static final DateTimeFormatter HOUR_FORMAT
+            = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneOffset.UTC);
+
+    private ForecastSeries hourlySeries;
     private String locationName;
     private DataFetcher dataFetcher;
 
@@ -22,21 +30,58 @@ public class HourlyForecast {
      * Constructor for HourlyForecast class. Initializes empty variables.
      */
     public HourlyForecast() {
-        this.hourlyForecast = new ArrayList<>();
+        this.hourlySeries = ForecastSeries.EMPTY;
         this.locationName = null;
         this.dataFetcher = new DataFetcher();
     }
 
     /**
-     * Retrieves the list of hourly forecasts.
+     * Constructor for HourlyForecast class that uses the given DataFetcher for
+     * the requests.
+     *
+     * @param dataFetcher The DataFetcher used to retrieve forecast information.
+     */
+    public HourlyForecast(DataFetcher dataFetcher) {
+        this.hourlySeries = ForecastSeries.EMPTY;
+        this.locationName = null;
+        this.dataFetcher = dataFetcher;
+    }
+
+    /**
+     * Retrieves the list of hourly forecasts. This adapts the series for
+     * callers of the older WeatherData API; the program itself uses
+     * getHourlySeries. The list is made from the series on every call, and
+     * the values have the precision of the floats of the series.
      *
      * @return ArrayList containing WeatherData objects representing hourly
      * forecasts.
      */
     public ArrayList<WeatherData> getHourlyForecast() {
+        ArrayList<WeatherData> hourlyForecast = new ArrayList<>(hourlySeries.size());
+        for (int i = 0; i < hourlySeries.size(); i++) {
+            WeatherData weatherData = new WeatherData();
+            weatherData.setHour(HOUR_FORMAT.format(Instant.ofEpochSecond(hourlySeries.getTime(i))));
+            String icon = hourlySeries.getIcon(i);
+            weatherData.setIconPath(icon.isEmpty() ? "" : DataFetcher.iconUrl(icon));
+            weatherData.setTemperature(hourlySeries.getTemperature(i));
+            weatherData.setWindSpeed(hourlySeries.getWindSpeed(i));
+            weatherData.setWindDirection(hourlySeries.getWindDirection(i));
+            weatherData.setPrecipitation(hourlySeries.getPrecipitation(i));
+
+            hourlyForecast.add(weatherData);
+        }
         return hourlyForecast;
     }
 
+    /**
+     * Retrieves the hourly forecast as a series.
+     *
+     * @return The hourly forecast, which is empty if it has not been fetched.
+     */
+    public ForecastSeries getHourlySeries() {
+        return hourlySeries;
+    }
+
     /**
      * Fetches hourly weather forecast data based on the provided location name.
      *
@@ -47,57 +92,41 @@ public class HourlyForecast {
      */
     public boolean fetchHourlyData(String locationName) {
         this.locationName = locationName;
-        this.hourlyForecast.clear();
-
-        String coord = dataFetcher.lookUpLocation(locationName);
-        if (coord != null) {
-            String[] coordArray = coord.split(",");
-            double lat = Double.parseDouble(coordArray[0]);
-            double lon = Double.parseDouble(coordArray[1]);
-
-            String forecastInfo = dataFetcher.getHourlyForecast(lat, lon);
-            if (forecastInfo != null) {
-                String[] hourlyForecasts = forecastInfo.split("\n");
-                for (String hf : hourlyForecasts) {
-                    String[] forecastDetails = hf.split(",");
-
-                    if (forecastDetails.length >= 5) {
-                        String hour = forecastDetails[0].substring(6).trim();
-                        String iconURL = forecastDetails[1].substring(10).trim();
-                        String temp = forecastDetails[2].substring(6).trim();
-                        String windSp = forecastDetails[3].substring(12).trim();
-                        String windDeg = forecastDetails[4].substring(10).trim();
+        this.hourlySeries = ForecastSeries.EMPTY;
 
-                        //System.out.println("HourlyForecast iconURL: " + iconURL);
-                        //System.out.println("HourlyForecast temp: " + temp);
-                        //System.out.println("HourlyForecast windDeg: " + windDeg);
-
-                        WeatherData weatherData = new WeatherData();
-                        weatherData.setHour(hour);
-                        weatherData.setIconPath(iconURL);
-                        weatherData.setTemperature(Double.parseDouble(temp));
-                        weatherData.setWindSpeed(Double.parseDouble(windSp));
-                        weatherData.setWindDirection(Double.parseDouble(windDeg));
-
-                        String precip = "0.0";
-
-                        if (forecastDetails.length >= 5) {
-                            precip = forecastDetails[5].substring(14).trim();
-                        }
+        Location location = dataFetcher.lookUpLocation(locationName);
+        if (location != null) {
+            fetchHourlyData(location.getLatitude(), location.getLongitude());
+        } else {
+            return false;
+        }
+        return true;
+    }
 
-                        try {
-                            weatherData.setPrecipitation(Double.parseDouble(precip));
-                        } catch (NumberFormatException e) {
-                            weatherData.setPrecipitation(0.0);
-                        }
+    /**
+     * Fetches the hourly weather forecast for already resolved coordinates.
+     *
+     * @param lat The latitude of the location.
+     * @param lon The longitude of the location.
+     * @return boolean value of whether the forecast was fetched or not.
+     */
+    public boolean fetchHourlyData(double lat, double lon) {
+        return applyHourlyData(dataFetcher.getHourlyForecast(lat, lon));
+    }
 
-                        hourlyForecast.add(weatherData);
-                    }
-                }
-            }
-        } else {
+    /**
+     * Sets the hourly forecast from a response that has already been fetched.
+     *
+     * @param forecast The hourly forecast as returned by DataFetcher, or null
+     * if it could not be fetched.
+     * @return boolean value of whether the forecast was set or not.
+     */
+    boolean applyHourlyData(List<HourlyForecastEntry> forecast) {
+        if (forecast == null) {
+            this.hourlySeries = ForecastSeries.EMPTY;
             return false;
         }
+        this.hourlySeries = ForecastSeries.of(forecast);
         return true;
     }
 }
@@ -0,0 +1,95 @@
+package fi.tuni.prog3.weatherapp;
+
+import java.util.Objects;
+
+/**
+ * One immutable hour of the OpenWeatherMap hourly forecast.
+ *
+ * @author Melina
+ */
+public final class HourlyForecastEntry {
+
+    private final long time;
+    private final String icon;
+    private final double temperature;
+    private final double windSpeed;
+    private final double windDirection;
+    private final double precipitation;
+
+    /**
+     * Constructs an hourly forecast entry.
+     *
+     * @param time The forecasted hour as a unix timestamp in seconds
+     * @param icon OpenWeatherMap icon code, e.g. "10d"
+     * @param temperature Temperature in degrees Celsius
+     * @param windSpeed Wind speed in metres per second
+     * @param windDirection Wind direction in degrees
+     * @param precipitation Precipitation of the hour in millimetres
+     */
+    public HourlyForecastEntry(long time, String icon, double temperature,
+            double windSpeed, double windDirection, double precipitation) {
+        this.time = time;
+        this.icon = icon;
+        this.temperature = temperature;
+        this.windSpeed = windSpeed;
+        this.windDirection = windDirection;
+        this.precipitation = precipitation;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public String getIcon() {
+        return icon;
+    }
+
+    public String getIconUrl() {
+        return DataFetcher.iconUrl(icon);
+    }
+
+    public double getTemperature() {
+        return temperature;
+    }
+
+    public double getWindSpeed() {
+        return windSpeed;
+    }
+
+    public double getWindDirection() {
+        return windDirection;
+    }
+
+    public double getPrecipitation() {
+        return precipitation;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof HourlyForecastEntry)) {
+            return false;
+        }
+        HourlyForecastEntry other = (HourlyForecastEntry) obj;
+        return time == other.time
+                && Double.compare(temperature, other.temperature) == 0
+                && Double.compare(windSpeed, other.windSpeed) == 0
+                && Double.compare(windDirection, other.windDirection) == 0
+                && Double.compare(precipitation, other.precipitation) == 0
+                && Objects.equals(icon, other.icon);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(time, icon, temperature, windSpeed, windDirection, precipitation);
+    }
+
+    @Override
+    public String toString() {
+        return "Hour: " + time + ", Icon: " + icon + ", Temp: " + temperature
+                + ", WindSpeed: " + windSpeed + ", WindDeg: " + windDirection
+                + ", Precipitation: " + precipitation;
+    }
+}
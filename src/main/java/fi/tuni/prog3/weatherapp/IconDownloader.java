@@ -0,0 +1,178 @@
+package fi.tuni.prog3.weatherapp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Downloads OpenWeatherMap icons into a cache directory. OpenWeatherMap never
+ * changes the image behind an icon name, so the name works as the content
+ * address of the icon and a downloaded icon is never fetched again.
+ *
+ * At most a fixed number of downloads run at a time, and concurrent requests
+ * for the same icon share one download. A download fails if the server does
+ * not connect or stops sending within a few seconds, so a stalled request
+ * can't hold a download thread for long. An icon is first written to a
+ * temporary file in the cache directory and then renamed, so the cache never
+ * contains a partially written icon.
+ *
+ * @author Melina
+ */
+public class IconDownloader {
+
+    /**
+     * The file names of every OpenWeatherMap weather icon.
+     */
+    public static final List<String> ALL_ICONS = allIcons();
+
+    private static final String URL_ICON = "https://openweathermap.org/img/wn/";
+    private static final int DEFAULT_PARALLELISM = 4;
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+    private static final int READ_TIMEOUT_MILLIS = 10000;
+
+    private final Path directory;
+    private final String baseUrl;
+    private final ExecutorService executor;
+    private final InFlightRequests inFlight = new InFlightRequests();
+    private final LongAdder downloads = new LongAdder();
+
+    /**
+     * Constructs a downloader that stores the icons in the platform cache
+     * directory of the user.
+     */
+    public IconDownloader() {
+        this(defaultDirectory(), URL_ICON, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Constructs a downloader.
+     *
+     * @param directory The directory the icons are stored in.
+     * @param baseUrl The URL the icon names are appended to.
+     * @param parallelism The maximum number of downloads running at a time.
+     */
+    public IconDownloader(Path directory, String baseUrl, int parallelism) {
+        this.directory = directory;
+        this.baseUrl = baseUrl;
+        this.executor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "icon-downloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the icon cache directory of the platform: under LOCALAPPDATA on
+     * Windows, ~/Library/Caches on macOS and XDG_CACHE_HOME or ~/.cache
+     * elsewhere.
+     *
+     * @return The directory the icons are stored in by default.
+     */
+    public static Path defaultDirectory() {
+        String os = System.getProperty("os.name", "").toLowerCase(Locale.ROOT);
+        String home = System.getProperty("user.home");
+        Path base;
+        if (os.contains("win") && System.getenv("LOCALAPPDATA") != null) {
+            base = Paths.get(System.getenv("LOCALAPPDATA"));
+        } else if (os.contains("mac")) {
+            base = Paths.get(home, "Library", "Caches");
+        } else if (System.getenv("XDG_CACHE_HOME") != null) {
+            base = Paths.get(System.getenv("XDG_CACHE_HOME"));
+        } else {
+            base = Paths.get(home, ".cache");
+        }
+        return base.resolve("WeatherApp").resolve("icons");
+    }
+
+    /**
+     * Returns the cached copy of an icon, downloading it if it is not cached.
+     *
+     * @param iconName The file name of the icon, e.g. "10d@2x.png".
+     * @return CompletableFuture completing with the path of the cached icon,
+     * or completing exceptionally if the icon can't be downloaded.
+     */
+    public CompletableFuture<Path> fetch(String iconName) {
+        Path file = directory.resolve(iconName);
+        if (Files.exists(file)) {
+            return CompletableFuture.completedFuture(file);
+        }
+        return inFlight.join(iconName,
+                () -> CompletableFuture.supplyAsync(() -> download(iconName, file), executor));
+    }
+
+    /**
+     * Downloads every given icon that is not cached yet, in parallel.
+     *
+     * @param iconNames The file names of the icons.
+     * @return CompletableFuture completing when every download has finished.
+     * Failed downloads are not reported, they are retried on the next fetch.
+     */
+    public CompletableFuture<Void> prewarm(Collection<String> iconNames) {
+        List<CompletableFuture<?>> fetches = new ArrayList<>();
+        for (String iconName : iconNames) {
+            fetches.add(fetch(iconName).exceptionally(ex -> null));
+        }
+        return CompletableFuture.allOf(fetches.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Returns the number of icons that have been downloaded.
+     *
+     * @return The number of downloads.
+     */
+    public long getDownloads() {
+        return downloads.sum();
+    }
+
+    private Path download(String iconName, Path file) {
+        Path temp = null;
+        try {
+            Files.createDirectories(directory);
+            if (Files.exists(file)) {
+                return file;
+            }
+            temp = Files.createTempFile(directory, iconName, ".part");
+            URLConnection connection = new URL(baseUrl + iconName).openConnection();
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+            connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+            try (InputStream in = connection.getInputStream()) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            downloads.increment();
+            return file;
+        } catch (IOException ex) {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // The temporary file is left behind, but never used.
+                }
+            }
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static List<String> allIcons() {
+        List<String> icons = new ArrayList<>();
+        for (String code : new String[]{"01", "02", "03", "04", "09", "10", "11", "13", "50"}) {
+            icons.add(code + "d@2x.png");
+            icons.add(code + "n@2x.png");
+        }
+        return List.copyOf(icons);
+    }
+}
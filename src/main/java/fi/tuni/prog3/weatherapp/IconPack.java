@@ -0,0 +1,192 @@
+package fi.tuni.prog3.weatherapp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The OpenWeatherMap weather icons, packed into one file at build time by
+ * IconPackBuilder. The pack is read into a single buffer, and an icon is
+ * looked up as an offset and a length into that buffer, so icons are served
+ * without any file or network access.
+ *
+ * The pack starts with a header: the magic number, the number of icons and
+ * for every icon its name, offset and length. The PNG data of the icons
+ * follows the header.
+ *
+ * @author Melina
+ */
+public final class IconPack {
+
+    static final int MAGIC = 0x4F574D49; // "OWMI"
+    static final String RESOURCE = "/icons/openweathermap.pack";
+
+    private final ByteBuffer data;
+    private final Map<String, Long> index;
+
+    private IconPack(ByteBuffer data) throws IOException {
+        this.data = data;
+        this.index = readIndex(data.duplicate());
+    }
+
+    /**
+     * Returns the icon pack bundled with the application. The pack is read
+     * from the classpath the first time this is called.
+     *
+     * @return The bundled icon pack, which is empty if the pack is missing.
+     */
+    public static IconPack getDefault() {
+        return Bundled.PACK;
+    }
+
+    /**
+     * Reads an icon pack from a stream.
+     *
+     * @param in The stream containing the pack.
+     * @return The icon pack.
+     * @throws IOException If the stream can't be read or does not contain an
+     * icon pack.
+     */
+    public static IconPack read(InputStream in) throws IOException {
+        byte[] bytes = in.readAllBytes();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        return new IconPack(buffer);
+    }
+
+    /**
+     * Memory-maps an icon pack file.
+     *
+     * @param file The pack file.
+     * @return The icon pack.
+     * @throws IOException If the file can't be mapped or is not an icon
+     * pack.
+     */
+    public static IconPack map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new IconPack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Checks whether the pack contains an icon.
+     *
+     * @param name The file name of the icon, e.g. "10d@2x.png".
+     * @return true if the icon is in the pack, otherwise false.
+     */
+    public boolean contains(String name) {
+        return index.containsKey(name);
+    }
+
+    /**
+     * Opens an icon of the pack. The returned stream reads straight from the
+     * buffer of the pack.
+     *
+     * @param name The file name of the icon, e.g. "10d@2x.png".
+     * @return A stream of the PNG data of the icon, or null if the icon is
+     * not in the pack.
+     */
+    public InputStream open(String name) {
+        Long entry = index.get(name);
+        if (entry == null) {
+            return null;
+        }
+        int offset = (int) (entry >>> 32);
+        int length = (int) (long) entry;
+        ByteBuffer icon = data.duplicate();
+        icon.position(offset).limit(offset + length);
+        return new BufferInputStream(icon.slice());
+    }
+
+    /**
+     * Returns the number of icons in the pack.
+     *
+     * @return The number of icons.
+     */
+    public int size() {
+        return index.size();
+    }
+
+    private static Map<String, Long> readIndex(ByteBuffer header) throws IOException {
+        if (header.remaining() < 8 || header.getInt() != MAGIC) {
+            throw new IOException("Not an icon pack");
+        }
+        int count = header.getInt();
+        Map<String, Long> index = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            byte[] name = new byte[header.getShort()];
+            header.get(name);
+            long offset = header.getInt();
+            long length = header.getInt();
+            if (offset + length > header.limit()) {
+                throw new IOException("Icon pack is truncated");
+            }
+            index.put(new String(name, StandardCharsets.UTF_8), offset << 32 | length);
+        }
+        return index;
+    }
+
+    /**
+     * Holds the bundled pack, which is read when the holder is first used.
+     */
+    private static final class Bundled {
+
+        private static final IconPack PACK = load();
+
+        private static IconPack load() {
+            try (InputStream in = IconPack.class.getResourceAsStream(RESOURCE)) {
+                if (in != null) {
+                    return read(in);
+                }
+                Logger.getLogger(IconPack.class.getName()).log(Level.WARNING,
+                        "{0} is missing", RESOURCE);
+                return new IconPack(ByteBuffer.allocate(8).putInt(MAGIC).putInt(0).flip());
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+
+    /**
+     * An InputStream over the remaining bytes of a buffer.
+     */
+    private static final class BufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
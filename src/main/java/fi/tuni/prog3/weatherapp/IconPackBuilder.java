@@ -0,0 +1,93 @@
+package fi.tuni.prog3.weatherapp;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Packs the PNG icons of a directory into the icon pack format read by
+ * IconPack. The build runs this after compiling, with src/main/icons as the
+ * source and the icon pack resource in target/classes as the target.
+ *
+ * @author Melina
+ */
+public final class IconPackBuilder {
+
+    private IconPackBuilder() {
+    }
+
+    /**
+     * Builds an icon pack.
+     *
+     * @param args The directory of the icons and the pack file to write.
+     * @throws IOException If an icon can't be read or the pack can't be
+     * written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: IconPackBuilder <icon directory> <pack file>");
+        }
+        Path target = Paths.get(args[1]);
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int count = build(Paths.get(args[0]), out);
+            System.out.println("Packed " + count + " icons into " + target);
+        }
+    }
+
+    /**
+     * Writes the PNG icons of a directory as an icon pack, in name order.
+     *
+     * @param directory The directory of the icons.
+     * @param out The stream the pack is written to.
+     * @return The number of packed icons.
+     * @throws IOException If an icon can't be read or the pack can't be
+     * written.
+     */
+    static int build(Path directory, OutputStream out) throws IOException {
+        List<Path> icons;
+        try (Stream<Path> files = Files.list(directory)) {
+            icons = files.filter(file -> file.getFileName().toString().endsWith(".png"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        List<byte[]> names = new ArrayList<>();
+        int headerSize = 8;
+        for (Path icon : icons) {
+            byte[] name = icon.getFileName().toString().getBytes(StandardCharsets.UTF_8);
+            names.add(name);
+            headerSize += 2 + name.length + 8;
+        }
+
+        List<byte[]> contents = new ArrayList<>();
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(IconPack.MAGIC);
+        data.writeInt(icons.size());
+        int offset = headerSize;
+        for (int i = 0; i < icons.size(); i++) {
+            byte[] content = Files.readAllBytes(icons.get(i));
+            contents.add(content);
+            data.writeShort(names.get(i).length);
+            data.write(names.get(i));
+            data.writeInt(offset);
+            data.writeInt(content.length);
+            offset += content.length;
+        }
+        for (byte[] content : contents) {
+            data.write(content);
+        }
+        data.flush();
+        return icons.size();
+    }
+}
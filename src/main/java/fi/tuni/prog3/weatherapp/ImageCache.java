@@ -0,0 +1,151 @@
+package fi.tuni.prog3.weatherapp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.scene.image.Image;
+
+/**
+ * A bounded cache of decoded images. Images are keyed on an icon id and the
+ * size they are shown at, and are decoded straight at that size, so showing
+ * a cached image needs no PNG decoding or scaling. When the cache is full,
+ * the least recently used image is dropped.
+ *
+ * Images that fail to load are not cached. The cache counts hits and misses.
+ *
+ * @author Melina
+ */
+public class ImageCache {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private final Map<String, Image> images;
+    private final BiFunction<InputStream, Integer, Image> decoder;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructs a cache that holds at most 64 images.
+     */
+    public ImageCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a cache that holds at most the given number of images.
+     *
+     * @param capacity The maximum number of images in the cache.
+     */
+    public ImageCache(int capacity) {
+        this(capacity, ImageCache::decode);
+    }
+
+    /**
+     * Constructs a cache that holds at most the given number of images and
+     * decodes them with the given function.
+     *
+     * @param capacity The maximum number of images in the cache.
+     * @param decoder Decodes the image in a stream to the given size,
+     * returning null if it can't be decoded.
+     */
+    ImageCache(int capacity, BiFunction<InputStream, Integer, Image> decoder) {
+        this.decoder = decoder;
+        this.images = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Image> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the image of an icon at the given size, decoding it if it is
+     * not cached. The image is decoded on the calling thread.
+     *
+     * @param id The id of the icon, e.g. "10d@2x.png" or "/icons/N.png".
+     * @param size The width and height the image is shown at, or 0 for the
+     * size of the original image.
+     * @param open Opens the PNG data of the icon, or returns null if the icon
+     * is not available. Only called when the image is not cached. The stream
+     * is closed after decoding.
+     * @return The image, or null if it could not be loaded.
+     */
+    public Image get(String id, int size, Function<String, InputStream> open) {
+        String key = key(id, size);
+        synchronized (images) {
+            Image image = images.get(key);
+            if (image != null) {
+                hits.increment();
+                return image;
+            }
+        }
+        misses.increment();
+
+        Image image;
+        try (InputStream in = open.apply(id)) {
+            if (in == null) {
+                return null;
+            }
+            image = decoder.apply(in, size);
+        } catch (IOException ex) {
+            Logger.getLogger(ImageCache.class.getName()).log(Level.WARNING, null, ex);
+            return null;
+        }
+        if (image == null) {
+            return null;
+        }
+        synchronized (images) {
+            Image existing = images.putIfAbsent(key, image);
+            return existing != null ? existing : image;
+        }
+    }
+
+    /**
+     * Returns the number of images in the cache.
+     *
+     * @return The number of cached images.
+     */
+    public int size() {
+        synchronized (images) {
+            return images.size();
+        }
+    }
+
+    /**
+     * Returns the number of calls that were served from the cache.
+     *
+     * @return The number of hits.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of calls that had to decode the image.
+     *
+     * @return The number of misses.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ImageCache hits: " + getHits() + ", misses: " + getMisses();
+    }
+
+    private static Image decode(InputStream in, int size) {
+        Image image = new Image(in, size, size, true, true);
+        return image.isError() ? null : image;
+    }
+
+    private static String key(String id, int size) {
+        return id + "#" + size;
+    }
+}
@@ -0,0 +1,76 @@
+package fi.tuni.prog3.weatherapp;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A table of requests that are currently in flight. Callers that ask for the
+ * same key while a request for it is still outstanding are attached to that
+ * request and share its result, instead of starting a duplicate request.
+ * A key is removed from the table as soon as its request completes.
+ *
+ * @author Melina
+ */
+public class InFlightRequests {
+
+    private final Map<String, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Returns the outstanding request for the key, or starts a new one.
+     *
+     * Every caller gets its own copy of the shared future, so cancelling it
+     * does not affect the other callers.
+     *
+     * @param <T> The type of the result.
+     * @param key The key identifying the request, e.g. endpoint and
+     * coordinates.
+     * @param request Starts the request if none is in flight for the key.
+     * @return CompletableFuture completing with the result of the request.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> join(String key, Supplier<CompletableFuture<T>> request) {
+        CompletableFuture<T> created = new CompletableFuture<>();
+        CompletableFuture<?> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalesced.increment();
+            return ((CompletableFuture<T>) existing).copy();
+        }
+        try {
+            request.get().whenComplete((result, ex) -> {
+                inFlight.remove(key, created);
+                if (ex != null) {
+                    created.completeExceptionally(ex);
+                } else {
+                    created.complete(result);
+                }
+            });
+        } catch (RuntimeException ex) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(ex);
+        }
+        return created.copy();
+    }
+
+    /**
+     * Returns the number of requests currently in flight.
+     *
+     * @return The number of outstanding requests.
+     */
+    public int size() {
+        return inFlight.size();
+    }
+
+    /**
+     * Returns how many callers were attached to a request that was already
+     * in flight.
+     *
+     * @return The number of coalesced calls.
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+}
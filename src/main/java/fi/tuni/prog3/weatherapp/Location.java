@@ -0,0 +1,94 @@
+package fi.tuni.prog3.weatherapp;
+
+import java.util.Objects;
+
+/**
+ * An immutable geocoding result: the resolved name of a location, its
+ * coordinates and, once it is known, its OpenWeatherMap city id.
+ *
+ * @author Melina
+ */
+public final class Location {
+
+    private final String name;
+    private final double latitude;
+    private final double longitude;
+    private final long cityId;
+
+    /**
+     * Constructs a location.
+     *
+     * @param name The resolved name of the location
+     * @param latitude The latitude of the location
+     * @param longitude The longitude of the location
+     */
+    public Location(String name, double latitude, double longitude) {
+        this(name, latitude, longitude, 0);
+    }
+
+    /**
+     * Constructs a location with a known OpenWeatherMap city id.
+     *
+     * @param name The resolved name of the location
+     * @param latitude The latitude of the location
+     * @param longitude The longitude of the location
+     * @param cityId The OpenWeatherMap id of the city, or 0 if it is not known
+     */
+    public Location(String name, double latitude, double longitude, long cityId) {
+        this.name = name;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.cityId = cityId;
+    }
+
+    /**
+     * Returns a copy of this location with the given city id.
+     *
+     * @param cityId The OpenWeatherMap id of the city
+     * @return Location - the location with the city id
+     */
+    public Location withCityId(long cityId) {
+        return new Location(name, latitude, longitude, cityId);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public long getCityId() {
+        return cityId;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Location)) {
+            return false;
+        }
+        Location other = (Location) obj;
+        return Double.compare(latitude, other.latitude) == 0
+                && Double.compare(longitude, other.longitude) == 0
+                && cityId == other.cityId
+                && Objects.equals(name, other.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, latitude, longitude, cityId);
+    }
+
+    @Override
+    public String toString() {
+        return latitude + "," + longitude + "," + name;
+    }
+}
@@ -0,0 +1,108 @@
+package fi.tuni.prog3.weatherapp;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * LocationLoader loads everything needed to show one location in a single
+ * pass. The location is geocoded once, after which the current weather, the
+ * daily forecast and the hourly forecast are requested through the
+ * asynchronous DataFetcher API, without a thread waiting for each one: in
+ * parallel from three endpoints, or from the One Call endpoint in one request.
+ * The results are combined into one immutable LocationSnapshot. A forecast
+ * that can't be fetched is left empty, but without the current weather there
+ * is nothing to show, and the load fails.
+ *
+ * @author Melina
+ */
+public class LocationLoader {
+
+    private final DataFetcher dataFetcher;
+
+    /**
+     * Constructs a LocationLoader that uses a new DataFetcher of the
+     * configured kind, see DataFetcher.create.
+     */
+    public LocationLoader() {
+        this(DataFetcher.create());
+    }
+
+    /**
+     * Constructs a LocationLoader that uses the given DataFetcher.
+     *
+     * @param dataFetcher The DataFetcher used for all requests
+     */
+    public LocationLoader(DataFetcher dataFetcher) {
+        this.dataFetcher = dataFetcher;
+    }
+
+    /**
+     * Returns the DataFetcher used for all requests.
+     *
+     * @return DataFetcher - the fetcher of this loader
+     */
+    public DataFetcher getDataFetcher() {
+        return dataFetcher;
+    }
+
+    /**
+     * Loads the current weather and the daily and hourly forecasts for the
+     * given location name.
+     *
+     * @param locationName The name of the location to load
+     * @return LocationSnapshot with the loaded data, or null if the location
+     * could not be found
+     */
+    public LocationSnapshot load(String locationName) {
+        try {
+            return loadAsync(locationName).join();
+        } catch (CompletionException ex) {
+            Logger.getLogger(LocationLoader.class.getName()).log(Level.SEVERE, null, ex.getCause());
+        }
+        return null;
+    }
+
+    /**
+     * Loads the current weather and the daily and hourly forecasts for the
+     * given location name without blocking the caller.
+     *
+     * @param locationName The name of the location to load
+     * @return CompletableFuture completing with the loaded data, or with null
+     * if the location could not be found
+     */
+    public CompletableFuture<LocationSnapshot> loadAsync(String locationName) {
+        return dataFetcher.lookUpLocationAsync(locationName).thenCompose(location -> {
+            if (location == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return load(location.getLatitude(), location.getLongitude(), location.getName());
+        });
+    }
+
+    private CompletableFuture<LocationSnapshot> load(double lat, double lon, String name) {
+        return dataFetcher.getWeatherAsync(lat, lon).exceptionally(ex -> {
+            Logger.getLogger(LocationLoader.class.getName()).log(Level.WARNING, null, ex);
+            return new WeatherBundle(null, null, null);
+        }).thenApply(bundle -> {
+            WeatherData current = new WeatherData();
+            current.setLocationName(name);
+            current.applyCurrentWeather(bundle.getCurrent(), lat, lon);
+
+            WeatherForecast daily = new WeatherForecast(dataFetcher);
+            daily.applyDailyData(bundle.getDaily(), lat, lon, name);
+
+            HourlyForecast hourly = new HourlyForecast(dataFetcher);
+            hourly.applyHourlyData(bundle.getHourly());
+
+            LocationSnapshot snapshot = new LocationSnapshot(name, lat, lon, current,
+                    daily.getDailyForecast(), hourly.getHourlySeries());
+            if (!snapshot.hasCurrentWeather()) {
+                throw new CompletionException(new IOException("No current weather for " + name));
+            }
+            return snapshot;
+        });
+    }
+}
@@ -0,0 +1,112 @@
+package fi.tuni.prog3.weatherapp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable snapshot of everything the user interface shows for one
+ * location: the resolved name and coordinates, the current weather and the
+ * daily and hourly forecasts, the hourly one as a ForecastSeries. A snapshot
+ * is produced by LocationLoader and handed to the user interface as a single
+ * result. It also records when its data was fetched, so that a snapshot
+ * restored from SnapshotStore can be shown as stale.
+ *
+ * @author Melina
+ */
+public final class LocationSnapshot {
+
+    private final String locationName;
+    private final double latitude;
+    private final double longitude;
+    private final WeatherData currentWeather;
+    private final List<WeatherData> dailyForecast;
+    private final ForecastSeries hourlyForecast;
+    private final long fetchedAt;
+
+    /**
+     * Constructs a snapshot of data fetched now. The daily forecast list is
+     * copied, so later changes to the given list are not visible through the
+     * snapshot.
+     *
+     * @param locationName The resolved name of the location
+     * @param latitude The latitude of the location
+     * @param longitude The longitude of the location
+     * @param currentWeather The current weather at the location
+     * @param dailyForecast The daily forecast for the location
+     * @param hourlyForecast The hourly forecast for the location
+     */
+    public LocationSnapshot(String locationName, double latitude, double longitude,
+            WeatherData currentWeather, List<WeatherData> dailyForecast,
+            ForecastSeries hourlyForecast) {
+        this(locationName, latitude, longitude, currentWeather, dailyForecast, hourlyForecast,
+                System.currentTimeMillis());
+    }
+
+    /**
+     * Constructs a snapshot of data fetched at the given time. The daily
+     * forecast list is copied.
+     *
+     * @param locationName The resolved name of the location
+     * @param latitude The latitude of the location
+     * @param longitude The longitude of the location
+     * @param currentWeather The current weather at the location
+     * @param dailyForecast The daily forecast for the location
+     * @param hourlyForecast The hourly forecast for the location
+     * @param fetchedAt When the data was fetched, in epoch milliseconds
+     */
+    public LocationSnapshot(String locationName, double latitude, double longitude,
+            WeatherData currentWeather, List<WeatherData> dailyForecast,
+            ForecastSeries hourlyForecast, long fetchedAt) {
+        this.locationName = locationName;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.currentWeather = currentWeather;
+        this.dailyForecast = Collections.unmodifiableList(new ArrayList<>(dailyForecast));
+        this.hourlyForecast = hourlyForecast;
+        this.fetchedAt = fetchedAt;
+    }
+
+    public String getLocationName() {
+        return locationName;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public WeatherData getCurrentWeather() {
+        return currentWeather;
+    }
+
+    public List<WeatherData> getDailyForecast() {
+        return dailyForecast;
+    }
+
+    public ForecastSeries getHourlyForecast() {
+        return hourlyForecast;
+    }
+
+    public long getFetchedAt() {
+        return fetchedAt;
+    }
+
+    /**
+     * Checks whether the snapshot has current weather that can be shown,
+     * i.e. current conditions with a description. Neither LocationLoader nor
+     * SnapshotStore hands out a snapshot without one.
+     *
+     * @return true if the current weather can be shown, otherwise false
+     */
+    public boolean hasCurrentWeather() {
+        if (currentWeather == null) {
+            return false;
+        }
+        String description = currentWeather.getDescription();
+        return description != null && !description.isEmpty();
+    }
+}
@@ -0,0 +1,93 @@
+package fi.tuni.prog3.weatherapp;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A DataFetcher that gets the current weather and the daily and hourly
+ * forecasts from the OpenWeatherMap One Call endpoint, which returns all
+ * three in one response. Loading a location therefore takes one geocoding
+ * request and one weather request, and the response is decoded in a single
+ * streaming pass.
+ *
+ * Location lookups and the group endpoint work as in DataFetcher. The
+ * current weather of a location on its own, as the favourites are refreshed
+ * before their city ids are known, also comes from the current weather
+ * endpoint of DataFetcher: a One Call response has no city id, and without
+ * it the favourites could never be refreshed through the group endpoint.
+ * Select this fetcher by starting the application with
+ * -Dweatherapp.api=onecall.
+ *
+ * @author Melina
+ */
+public class OneCallDataFetcher extends DataFetcher {
+
+    private final static String URL_ONECALL = "https://api.openweathermap.org/data/3.0/onecall?lat=";
+    private final static int DAILY_DAYS = 7;
+
+    /**
+     * Constructs a OneCallDataFetcher with the default request deadline.
+     */
+    public OneCallDataFetcher() {
+        super();
+    }
+
+    /**
+     * Constructs a OneCallDataFetcher that uses the given caches.
+     *
+     * @param requestTimeout The deadline of a single request.
+     * @param geocodeCache The cache for location lookups.
+     * @param responseCache The cache for One Call responses.
+     */
+    public OneCallDataFetcher(Duration requestTimeout, GeocodeCache geocodeCache, ResponseCache responseCache) {
+        super(requestTimeout, geocodeCache, responseCache);
+    }
+
+    /**
+     * Constructs a OneCallDataFetcher that uses the given caches and
+     * resolves locations with a local geocoder before asking the API.
+     *
+     * @param requestTimeout The deadline of a single request.
+     * @param geocodeCache The cache for location lookups.
+     * @param responseCache The cache for One Call responses.
+     * @param localGeocoder The geocoder tried before the API, or null to use
+     * the API only.
+     */
+    public OneCallDataFetcher(Duration requestTimeout, GeocodeCache geocodeCache, ResponseCache responseCache,
+            iGeocoder localGeocoder) {
+        super(requestTimeout, geocodeCache, responseCache, localGeocoder);
+    }
+
+    /**
+     * Returns the current weather and the daily and hourly forecasts for the
+     * given coordinates from one One Call request. The daily forecast is
+     * limited to 7 days, like in DataFetcher.
+     *
+     * @param lat The latitude of the location.
+     * @param lon The longitude of the location.
+     * @return CompletableFuture completing with the weather.
+     */
+    @Override
+    public CompletableFuture<WeatherBundle> getWeatherAsync(double lat, double lon) {
+        return cached(ResponseCache.Endpoint.ONECALL, lat, lon,
+                URL_ONECALL + lat + "&lon=" + lon + "&exclude=minutely,alerts"
+                + "&appid=" + API_KEY + "&units=metric",
+                body -> {
+                    WeatherBundle bundle = ResponseDecoder.decodeOneCall(body);
+                    List<DailyForecastEntry> daily = bundle.getDaily();
+                    return new WeatherBundle(bundle.getCurrent(),
+                            daily.subList(0, Math.min(DAILY_DAYS, daily.size())), bundle.getHourly());
+                });
+    }
+
+    @Override
+    public CompletableFuture<List<DailyForecastEntry>> getForecastAsync(double lat, double lon) {
+        return getWeatherAsync(lat, lon).thenApply(WeatherBundle::getDaily);
+    }
+
+    @Override
+    public CompletableFuture<List<HourlyForecastEntry>> getHourlyForecastAsync(double lat, double lon) {
+        return getWeatherAsync(lat, lon).thenApply(WeatherBundle::getHourly);
+    }
+}
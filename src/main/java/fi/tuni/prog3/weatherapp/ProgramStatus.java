@@ -8,13 +8,28 @@ package fi.tuni.prog3.weatherapp;
  */
 public class ProgramStatus {
 
-    private String currentLocation;
+    private static final String DEFAULT_LOCATION = "Helsinki";
+
+    private volatile String currentLocation;
+    private final GeocodeCache geocodeCache;
 
     /**
      * Constructs a ProgramStatus object with an initial empty current location.
      */
     public ProgramStatus() {
+        this(null);
+    }
+
+    /**
+     * Constructs a ProgramStatus object with an initial empty current location
+     * that validates locations against the given geocode cache.
+     *
+     * @param geocodeCache The cache of location lookups, or null to accept
+     * every location
+     */
+    public ProgramStatus(GeocodeCache geocodeCache) {
         this.currentLocation = "";
+        this.geocodeCache = geocodeCache;
     }
 
     /**
@@ -28,19 +43,33 @@ public class ProgramStatus {
 
     /**
      * Sets the current location within the WeatherApp program and prints the
-     * updated location for testing purposes, if location is invalid it is set to
-     * default value of "Helsinki".
+     * updated location for testing purposes, if location is known to be
+     * invalid it is set to default value of "Helsinki". The location is
+     * checked against the geocode cache only, so this never makes a network
+     * request; a location that is not cached is accepted and validated when
+     * its weather is loaded.
      *
      * @param location A String representing the new location to be set
      */
     public void setCurrentLocation(String location) {
-        WeatherForecast wf = new WeatherForecast();
-        if(wf.fetchDailyData(location)) {
-            this.currentLocation = location;
+        if (geocodeCache != null && geocodeCache.isKnownMissing(location)) {
+            this.currentLocation = DEFAULT_LOCATION;
         } else {
-            this.currentLocation = "Helsinki";
+            this.currentLocation = location;
         }
         System.out.println("ProgramStatus currentLocation: " + location);
     }
 
+    /**
+     * Sets the current location to a location the caller has already
+     * resolved.
+     *
+     * @param location The resolved location, or null if the location was
+     * not found, in which case the location is set to "Helsinki"
+     */
+    public void setCurrentLocation(Location location) {
+        this.currentLocation = location != null ? location.getName() : DEFAULT_LOCATION;
+        System.out.println("ProgramStatus currentLocation: " + currentLocation);
+    }
+
 }
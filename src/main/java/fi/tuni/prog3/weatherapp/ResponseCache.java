@@ -0,0 +1,161 @@
+package fi.tuni.prog3.weatherapp;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A time-to-live cache for decoded weather responses. OpenWeatherMap updates
+ * the current weather every few minutes and the forecasts every few hours, so
+ * a response can be reused until its endpoint specific time to live has
+ * passed.
+ *
+ * Entries are keyed on the endpoint and on coordinates rounded to a
+ * configurable number of decimals, so that nearby coordinates of the same
+ * location share an entry. The cache counts hits and misses.
+ *
+ * @author Melina
+ */
+public class ResponseCache {
+
+    /**
+     * The cached endpoints and their default times to live.
+     */
+    public enum Endpoint {
+        CURRENT(TimeUnit.MINUTES.toMillis(10)),
+        DAILY(TimeUnit.HOURS.toMillis(3)),
+        HOURLY(TimeUnit.HOURS.toMillis(1)),
+        ONECALL(TimeUnit.MINUTES.toMillis(10));
+
+        private final long defaultTtlMillis;
+
+        Endpoint(long defaultTtlMillis) {
+            this.defaultTtlMillis = defaultTtlMillis;
+        }
+    }
+
+    private static final int DEFAULT_PRECISION = 2;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Endpoint, Long> ttlMillis = new EnumMap<>(Endpoint.class);
+    private final double scale;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructs a cache that rounds coordinates to two decimals, about one
+     * kilometre, and uses the default times to live.
+     */
+    public ResponseCache() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Constructs a cache that rounds coordinates to the given number of
+     * decimals and uses the default times to live.
+     *
+     * @param precision The number of decimals coordinates are rounded to.
+     */
+    public ResponseCache(int precision) {
+        this.scale = Math.pow(10, precision);
+        for (Endpoint endpoint : Endpoint.values()) {
+            ttlMillis.put(endpoint, endpoint.defaultTtlMillis);
+        }
+    }
+
+    /**
+     * Sets the time to live of one endpoint. Entries already in the cache
+     * keep the expiry time they were stored with.
+     *
+     * @param endpoint The endpoint.
+     * @param millis The time to live in milliseconds.
+     */
+    public synchronized void setTimeToLive(Endpoint endpoint, long millis) {
+        ttlMillis.put(endpoint, millis);
+    }
+
+    /**
+     * Returns the key of the given endpoint and coordinates.
+     *
+     * @param endpoint The endpoint.
+     * @param lat The latitude.
+     * @param lon The longitude.
+     * @return The key under which the response is cached.
+     */
+    public String key(Endpoint endpoint, double lat, double lon) {
+        return endpoint.name() + ":" + Math.round(lat * scale) + ":" + Math.round(lon * scale);
+    }
+
+    /**
+     * Returns a cached response if it has not expired yet.
+     *
+     * @param <T> The type of the response.
+     * @param endpoint The endpoint.
+     * @param lat The latitude.
+     * @param lon The longitude.
+     * @return The cached response, or null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Endpoint endpoint, double lat, double lon) {
+        String key = key(endpoint, lat, lon);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+            hits.increment();
+            return (T) entry.value;
+        }
+        if (entry != null) {
+            entries.remove(key, entry);
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Stores a response.
+     *
+     * @param endpoint The endpoint.
+     * @param lat The latitude.
+     * @param lon The longitude.
+     * @param value The response.
+     */
+    public void put(Endpoint endpoint, double lat, double lon, Object value) {
+        long ttl;
+        synchronized (this) {
+            ttl = ttlMillis.get(endpoint);
+        }
+        entries.put(key(endpoint, lat, lon), new Entry(value, System.currentTimeMillis() + ttl));
+    }
+
+    /**
+     * Removes every entry. The hit and miss counts are kept.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseCache hits: " + getHits() + ", misses: " + getMisses();
+    }
+
+    private static final class Entry {
+
+        private final Object value;
+        private final long expiresAt;
+
+        private Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,527 @@
+package fi.tuni.prog3.weatherapp;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming decoders for OpenWeatherMap responses. The decoders pull the
+ * needed fields straight from the response with a JsonReader and skip
+ * everything else, so no intermediate String or JSON tree of the whole
+ * response is built.
+ *
+ * @author Melina
+ */
+final class ResponseDecoder {
+
+    private ResponseDecoder() {
+    }
+
+    /**
+     * Decodes the first result of a /geo/1.0/direct response.
+     *
+     * @param in The response body.
+     * @return Location - the first result, or null if there were no results
+     * @throws IOException If the response is not valid JSON.
+     */
+    static Location decodeLocation(Reader in) throws IOException {
+        Location location = null;
+        try (JsonReader reader = new JsonReader(in)) {
+            reader.beginArray();
+            if (reader.hasNext()) {
+                location = readLocation(reader);
+            }
+        }
+        return location;
+    }
+
+    /**
+     * Decodes every result of a /geo/1.0/direct response.
+     *
+     * @param in The response body.
+     * @return List of the results, in the order of the response
+     * @throws IOException If the response is not valid JSON.
+     */
+    static List<Location> decodeLocations(Reader in) throws IOException {
+        List<Location> locations = new ArrayList<>();
+        try (JsonReader reader = new JsonReader(in)) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                locations.add(readLocation(reader));
+            }
+            reader.endArray();
+        }
+        return locations;
+    }
+
+    private static Location readLocation(JsonReader reader) throws IOException {
+        String name = null;
+        double lat = 0.0;
+        double lon = 0.0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name":
+                    name = reader.nextString();
+                    break;
+                case "lat":
+                    lat = reader.nextDouble();
+                    break;
+                case "lon":
+                    lon = reader.nextDouble();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return new Location(name, lat, lon);
+    }
+
+    /**
+     * Decodes a /data/2.5/weather response.
+     *
+     * @param in The response body.
+     * @return CurrentConditions - the current weather
+     * @throws IOException If the response is not valid JSON.
+     */
+    static CurrentConditions decodeCurrentWeather(Reader in) throws IOException {
+        try (JsonReader reader = new JsonReader(in)) {
+            return readCurrentWeather(reader, new Condition());
+        }
+    }
+
+    /**
+     * Decodes a /data/2.5/group response.
+     *
+     * @param in The response body.
+     * @return List - the current weather of every city in the response, in
+     * the order of the response
+     * @throws IOException If the response is not valid JSON.
+     */
+    static List<CurrentConditions> decodeGroup(Reader in) throws IOException {
+        List<CurrentConditions> result = new ArrayList<>();
+        Condition condition = new Condition();
+
+        try (JsonReader reader = new JsonReader(in)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!reader.nextName().equals("list")) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    result.add(readCurrentWeather(reader, condition));
+                }
+                reader.endArray();
+            }
+            reader.endObject();
+        }
+        return result;
+    }
+
+    /**
+     * Decodes a /data/2.5/forecast/daily response.
+     *
+     * @param in The response body.
+     * @return List - the forecasted days
+     * @throws IOException If the response is not valid JSON.
+     */
+    static List<DailyForecastEntry> decodeDailyForecast(Reader in) throws IOException {
+        List<DailyForecastEntry> result = new ArrayList<>();
+        Condition condition = new Condition();
+
+        try (JsonReader reader = new JsonReader(in)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!reader.nextName().equals("list")) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    long time = 0;
+                    double minTemp = 0.0;
+                    double maxTemp = 0.0;
+                    condition.clear();
+
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "dt":
+                                time = reader.nextLong();
+                                break;
+                            case "weather":
+                                readCondition(reader, condition);
+                                break;
+                            case "temp":
+                                reader.beginObject();
+                                while (reader.hasNext()) {
+                                    switch (reader.nextName()) {
+                                        case "min":
+                                            minTemp = reader.nextDouble();
+                                            break;
+                                        case "max":
+                                            maxTemp = reader.nextDouble();
+                                            break;
+                                        default:
+                                            reader.skipValue();
+                                            break;
+                                    }
+                                }
+                                reader.endObject();
+                                break;
+                            default:
+                                reader.skipValue();
+                                break;
+                        }
+                    }
+                    reader.endObject();
+                    result.add(new DailyForecastEntry(time, condition.icon, minTemp, maxTemp));
+                }
+                reader.endArray();
+            }
+            reader.endObject();
+        }
+        return result;
+    }
+
+    /**
+     * Decodes a /data/2.5/forecast/hourly response.
+     *
+     * @param in The response body.
+     * @return List - the forecasted hours
+     * @throws IOException If the response is not valid JSON.
+     */
+    static List<HourlyForecastEntry> decodeHourlyForecast(Reader in) throws IOException {
+        List<HourlyForecastEntry> result = new ArrayList<>();
+        Condition condition = new Condition();
+
+        try (JsonReader reader = new JsonReader(in)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!reader.nextName().equals("list")) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    long time = 0;
+                    double temp = 0.0;
+                    double windSpeed = 0.0;
+                    double windDeg = 0.0;
+                    double precipitation = 0.0; // Initial value if no rain data available
+                    condition.clear();
+
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "dt":
+                                time = reader.nextLong();
+                                break;
+                            case "weather":
+                                readCondition(reader, condition);
+                                break;
+                            case "main":
+                                temp = readDouble(reader, "temp");
+                                break;
+                            case "rain":
+                                precipitation = readDouble(reader, "1h");
+                                break;
+                            case "wind":
+                                reader.beginObject();
+                                while (reader.hasNext()) {
+                                    switch (reader.nextName()) {
+                                        case "speed":
+                                            windSpeed = reader.nextDouble();
+                                            break;
+                                        case "deg":
+                                            windDeg = reader.nextDouble();
+                                            break;
+                                        default:
+                                            reader.skipValue();
+                                            break;
+                                    }
+                                }
+                                reader.endObject();
+                                break;
+                            default:
+                                reader.skipValue();
+                                break;
+                        }
+                    }
+                    reader.endObject();
+                    result.add(new HourlyForecastEntry(time, condition.icon, temp,
+                            windSpeed, windDeg, precipitation));
+                }
+                reader.endArray();
+            }
+            reader.endObject();
+        }
+        return result;
+    }
+
+    /**
+     * Decodes a /data/3.0/onecall response, which contains the current
+     * weather and the hourly and daily forecasts, in one pass.
+     *
+     * @param in The response body.
+     * @return WeatherBundle - the current weather and the forecasts
+     * @throws IOException If the response is not valid JSON.
+     */
+    static WeatherBundle decodeOneCall(Reader in) throws IOException {
+        CurrentConditions current = null;
+        List<DailyForecastEntry> daily = new ArrayList<>();
+        List<HourlyForecastEntry> hourly = new ArrayList<>();
+        Condition condition = new Condition();
+
+        try (JsonReader reader = new JsonReader(in)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "current":
+                        HourlyForecastEntry now = readOneCallHour(reader, condition);
+                        current = new CurrentConditions(now.getTemperature(), condition.description,
+                                now.getPrecipitation(), now.getWindSpeed(), now.getWindDirection(),
+                                condition.id, condition.icon);
+                        break;
+                    case "hourly":
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            hourly.add(readOneCallHour(reader, condition));
+                        }
+                        reader.endArray();
+                        break;
+                    case "daily":
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            daily.add(readOneCallDay(reader, condition));
+                        }
+                        reader.endArray();
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+        }
+        return new WeatherBundle(current, daily, hourly);
+    }
+
+    /**
+     * Reads the "current" object or one "hourly" element of a One Call
+     * response. Both have the same fields.
+     */
+    private static HourlyForecastEntry readOneCallHour(JsonReader reader, Condition condition) throws IOException {
+        long time = 0;
+        double temp = 0.0;
+        double windSpeed = 0.0;
+        double windDeg = 0.0;
+        double precipitation = 0.0;
+        condition.clear();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "dt":
+                    time = reader.nextLong();
+                    break;
+                case "temp":
+                    temp = reader.nextDouble();
+                    break;
+                case "wind_speed":
+                    windSpeed = reader.nextDouble();
+                    break;
+                case "wind_deg":
+                    windDeg = reader.nextDouble();
+                    break;
+                case "rain":
+                    precipitation = readDouble(reader, "1h");
+                    break;
+                case "weather":
+                    readCondition(reader, condition);
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return new HourlyForecastEntry(time, condition.icon, temp, windSpeed, windDeg, precipitation);
+    }
+
+    /**
+     * Reads one "daily" element of a One Call response.
+     */
+    private static DailyForecastEntry readOneCallDay(JsonReader reader, Condition condition) throws IOException {
+        long time = 0;
+        double minTemp = 0.0;
+        double maxTemp = 0.0;
+        condition.clear();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "dt":
+                    time = reader.nextLong();
+                    break;
+                case "weather":
+                    readCondition(reader, condition);
+                    break;
+                case "temp":
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "min":
+                                minTemp = reader.nextDouble();
+                                break;
+                            case "max":
+                                maxTemp = reader.nextDouble();
+                                break;
+                            default:
+                                reader.skipValue();
+                                break;
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return new DailyForecastEntry(time, condition.icon, minTemp, maxTemp);
+    }
+
+    /**
+     * Reads one current weather object, as returned by /data/2.5/weather and
+     * as the elements of /data/2.5/group.
+     */
+    private static CurrentConditions readCurrentWeather(JsonReader reader, Condition condition) throws IOException {
+        double temp = 0.0;
+        double precip = 0.0;
+        double windSp = 0.0;
+        double windDeg = 0.0;
+        long cityId = 0;
+        condition.clear();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id":
+                    cityId = reader.nextLong();
+                    break;
+                case "weather":
+                    readCondition(reader, condition);
+                    break;
+                case "main":
+                    temp = readDouble(reader, "temp");
+                    break;
+                case "rain":
+                    precip = readDouble(reader, "1h");
+                    break;
+                case "wind":
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "speed":
+                                windSp = reader.nextDouble();
+                                break;
+                            case "deg":
+                                windDeg = reader.nextDouble();
+                                break;
+                            default:
+                                reader.skipValue();
+                                break;
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return new CurrentConditions(temp, condition.description, precip, windSp,
+                windDeg, condition.id, condition.icon, cityId);
+    }
+
+    /**
+     * Reads one numeric field of an object and skips the others.
+     *
+     * @return The value of the field, or 0.0 if the object does not have it.
+     */
+    private static double readDouble(JsonReader reader, String field) throws IOException {
+        double value = 0.0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals(field) && reader.peek() == JsonToken.NUMBER) {
+                value = reader.nextDouble();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return value;
+    }
+
+    /**
+     * Reads the first element of a "weather" array into the given holder.
+     */
+    private static void readCondition(JsonReader reader, Condition condition) throws IOException {
+        reader.beginArray();
+        if (reader.hasNext()) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "id":
+                        condition.id = reader.nextInt();
+                        break;
+                    case "description":
+                        condition.description = reader.nextString();
+                        break;
+                    case "icon":
+                        condition.icon = reader.nextString();
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+        }
+        while (reader.hasNext()) {
+            reader.skipValue();
+        }
+        reader.endArray();
+    }
+
+    /**
+     * The fields of a weather condition, reused for every row of a response.
+     */
+    private static final class Condition {
+
+        private int id;
+        private String description;
+        private String icon;
+
+        /**
+         * Forgets the previous condition, so that an element without a
+         * "weather" array does not get the condition of the element before
+         * it.
+         */
+        private void clear() {
+            id = 0;
+            description = null;
+            icon = null;
+        }
+    }
+}
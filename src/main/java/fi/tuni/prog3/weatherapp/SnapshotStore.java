@@ -0,0 +1,74 @@
+package fi.tuni.prog3.weatherapp;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stores the last shown LocationSnapshot as JSON, so that the application can
+ * show it at startup before any request has been made. The snapshot is first
+ * written to a temporary file and then renamed, so a crash while saving never
+ * leaves a partially written snapshot behind.
+ *
+ * @author Melina
+ */
+public class SnapshotStore {
+
+    private final Path file;
+
+    /**
+     * Constructs a store that keeps the snapshot in the given file.
+     *
+     * @param file The file of the stored snapshot.
+     */
+    public SnapshotStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads the stored snapshot.
+     *
+     * @return The stored snapshot, or null if there is none or it can't be
+     * read.
+     */
+    public LocationSnapshot load() {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            LocationSnapshot stored = new Gson().fromJson(Files.readString(file), LocationSnapshot.class);
+            if (stored == null || !stored.hasCurrentWeather()
+                    || stored.getDailyForecast() == null || stored.getHourlyForecast() == null
+                    || !stored.getHourlyForecast().isConsistent()) {
+                return null;
+            }
+            // Gson bypasses the constructor, which makes the list unmodifiable
+            return new LocationSnapshot(stored.getLocationName(), stored.getLatitude(),
+                    stored.getLongitude(), stored.getCurrentWeather(), stored.getDailyForecast(),
+                    stored.getHourlyForecast(), stored.getFetchedAt());
+        } catch (IOException | JsonParseException ex) {
+            Logger.getLogger(SnapshotStore.class.getName()).log(Level.WARNING, null, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the stored snapshot.
+     *
+     * @param snapshot The snapshot to store.
+     */
+    public synchronized void save(LocationSnapshot snapshot) {
+        try {
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(temp, new Gson().toJson(snapshot));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            Logger.getLogger(SnapshotStore.class.getName()).log(Level.WARNING, null, ex);
+        }
+    }
+}
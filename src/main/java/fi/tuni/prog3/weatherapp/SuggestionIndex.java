@@ -0,0 +1,78 @@
+package fi.tuni.prog3.weatherapp;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Suggests location names for the start of a name typed by the user. The
+ * names the user has used before, i.e. favourites and loaded locations, are
+ * suggested first in alphabetical order, followed by the most populous
+ * matching cities of a CityIndex. Names are matched after normalising them
+ * like GeocodeCache does, and a name is suggested only once.
+ *
+ * The known names are kept sorted by their normalised form, so the names
+ * starting with the typed text are found without scanning all of them.
+ * Names can be added from any thread.
+ *
+ * @author Melina
+ */
+public class SuggestionIndex {
+
+    private final ConcurrentSkipListMap<String, String> known = new ConcurrentSkipListMap<>();
+    private final CityIndex cities;
+
+    /**
+     * Constructs an index with no known names.
+     *
+     * @param cities The cities suggested after the known names.
+     */
+    public SuggestionIndex(CityIndex cities) {
+        this.cities = cities;
+    }
+
+    /**
+     * Adds a name the user has used.
+     *
+     * @param name The name of the location.
+     */
+    public void add(String name) {
+        String key = GeocodeCache.normalise(name);
+        if (!key.isEmpty()) {
+            known.put(key, name);
+        }
+    }
+
+    /**
+     * Returns names starting with the given text.
+     *
+     * @param text The text typed by the user.
+     * @param limit The maximum number of names returned.
+     * @return The suggested names, best suggestion first.
+     */
+    public List<String> suggest(String text, int limit) {
+        String prefix = GeocodeCache.normalise(text);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Map<String, String> suggestions = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry
+                : known.subMap(prefix, prefix + Character.MAX_VALUE).entrySet()) {
+            if (suggestions.size() == limit) {
+                break;
+            }
+            suggestions.put(entry.getKey(), entry.getValue());
+        }
+        if (suggestions.size() < limit) {
+            for (String city : cities.suggest(prefix, limit)) {
+                if (suggestions.size() == limit) {
+                    break;
+                }
+                suggestions.putIfAbsent(GeocodeCache.normalise(city), city);
+            }
+        }
+        return new ArrayList<>(suggestions.values());
+    }
+}
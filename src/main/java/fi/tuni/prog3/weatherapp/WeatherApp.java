@@ -1,35 +1,61 @@
 package fi.tuni.prog3.weatherapp;
 
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URL;
 import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.animation.PauseTransition;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
+import javafx.collections.MapChangeListener;
+import javafx.collections.ObservableMap;
+import javafx.collections.WeakMapChangeListener;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
+import javafx.geometry.Orientation;
 import javafx.geometry.Pos;
+import javafx.geometry.Side;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.CustomMenuItem;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextField;
+import javafx.scene.control.ToggleButton;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.input.KeyCode;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.FlowPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
 public class WeatherApp extends Application {
 
@@ -57,13 +83,63 @@ public class WeatherApp extends Application {
     private ComboBox<String> favouritesComboBox;
     private String currentLocation;
     private static final String FILENAME = "./favouritesAndStatus.json";
+    private static final String SNAPSHOT_FILENAME = "./lastSnapshot.json";
+    private static final DateTimeFormatter STALE_FORMAT = DateTimeFormatter.ofPattern("d.M. HH:mm");
     private FileManager fileManager;
+    private WriteBehindPersister persister;
+    private final SnapshotStore snapshotStore = new SnapshotStore(Paths.get(SNAPSHOT_FILENAME));
+    private long startNanos;
+    private boolean painted;
     private FavouritesManager favouritesManager;
     private ProgramStatus programStatus;
+    // Created by the restore task, as creating them reads the geocode cache
+    // and maps the city index
+    private LocationLoader locationLoader;
+    private FavouritesRefresher favouritesRefresher;
+    private ToggleButton dashboardButton;
+    private FlowPane dashboardPane;
+    private final ObservableMap<String, Double> favouriteTemperatures = FXCollections.observableHashMap();
     private HBox dailyForecastBox;
-    private HBox hourlyForecastBox;
+    private final List<DayView> dayViews = new ArrayList<>();
+    private ListView<Integer> hourlyForecastView;
+    private ForecastSeries hourlySeries = ForecastSeries.EMPTY;
+    private ToggleButton chartButton;
+    private HourlyChart hourlyChart;
+    private ScrollPane hourlyChartPane;
     private BorderPane root = new BorderPane();
+    private Task<LocationSnapshot> currentLoad;
+    private SuggestionIndex suggestionIndex;
+    private ContextMenu suggestionsMenu;
+    private PauseTransition suggestionDelay;
+    private String suggestedText = "";
+    private CompletableFuture<List<Location>> suggestionRequest;
+    private static final int SUGGESTION_LIMIT = 6;
+    private static final int REMOTE_SUGGESTION_MIN_LENGTH = 3;
+    private static final Duration SUGGESTION_DELAY = Duration.millis(300);
+    private static final ImageCache IMAGE_CACHE = new ImageCache();
+    private static final IconDownloader ICON_DOWNLOADER = new IconDownloader();
+    private static final long ICON_WAIT_MILLIS = 5000;
     private static final String ICON_URL_PREFIX = "https://openweathermap.org/img/wn/";
+    private static final int WEATHER_ICON_SIZE = 128;
+    private static final int DETAIL_ICON_SIZE = 40;
+    private static final int DAY_ICON_SIZE = 100;
+    private static final int HOUR_ICON_SIZE = 64;
+    private static final int HOUR_WIND_ICON_SIZE = 24;
+    private static final int HOUR_CELL_WIDTH = 90;
+    private static final int HOUR_LIST_HEIGHT = 250;
+    private static final DateTimeFormatter HOUR_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+    private static final DateTimeFormatter DAY_NAME_FORMAT = DateTimeFormatter.ofPattern("EEE");
+    // One thread, so the snapshots are written in the order they were loaded
+    private static final ExecutorService SNAPSHOT_WRITER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "snapshot-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ExecutorService BACKGROUND = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "weatherapp-background");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     /**
      * Creates the graphical user interface for the application
@@ -73,19 +149,20 @@ public class WeatherApp extends Application {
      */
     @Override
     public void start(Stage primaryStage) throws Exception {
+        startNanos = System.nanoTime();
         root.setPadding(new Insets(10));
 
         createSearchComponents();
         createFavouriteComponents();
         favouritesManager = new FavouritesManager();
-        programStatus = new ProgramStatus();
-        fileManager = new FileManager(FILENAME, favouritesManager, programStatus);
         HBox searchBox = createSearchBox();
+        // Searching needs the loader, so it waits for the restore
+        searchBox.setDisable(true);
         VBox headerBox = createHeaderBox(searchBox);
 
         root.setTop(headerBox);
         root.setCenter(dailyForecastBox);
-        root.setBottom(hourlyForecastBox);
+        root.setBottom(hourlyNode());
 
         ScrollPane scrollPane = new ScrollPane();
         scrollPane.setContent(root);
@@ -99,10 +176,98 @@ public class WeatherApp extends Application {
         primaryStage.show();
         searchField.requestFocus();
 
-        fileManager.readFromFile(FILENAME);
-        updateFavouritesComboBox();
+        Task<LocationSnapshot> restore = new Task<>() {
+            @Override
+            protected LocationSnapshot call() throws Exception {
+                createServices();
+                try {
+                    fileManager.readFromFile(FILENAME);
+                } finally {
+                    saveFavouriteChanges();
+                }
+                for (Location known : locationLoader.getDataFetcher().getGeocodeCache().getLocations()) {
+                    suggestionIndex.add(known.getName());
+                }
+                LocationSnapshot last = snapshotStore.load();
+                if (last != null) {
+                    preloadImages(last, false);
+                }
+                return last;
+            }
+        };
+        restore.setOnSucceeded(e -> {
+            searchBox.setDisable(false);
+            try {
+                if (restore.getValue() != null) {
+                    showStaleSnapshot(restore.getValue());
+                }
+            } finally {
+                // A stored snapshot that can't be shown must not stop the refresh
+                showRestoredStatus();
+            }
+        });
+        restore.setOnFailed(e -> {
+            searchBox.setDisable(false);
+            restore.getException().printStackTrace();
+            showRestoredStatus();
+        });
+        BACKGROUND.execute(restore);
+        BACKGROUND.execute(this::prewarmIcons);
+    }
+
+    /**
+     * Creates the objects that read files when they are created: the loader
+     * with its geocode cache, the favourites refresher, the suggestion index
+     * over the city index and the saving of the program status. Called by
+     * the restore task, so none of this runs on the JavaFX thread.
+     */
+    private void createServices() {
+        locationLoader = new LocationLoader();
+        GeocodeCache geocodeCache = locationLoader.getDataFetcher().getGeocodeCache();
+        favouritesRefresher = new FavouritesRefresher(locationLoader.getDataFetcher(), geocodeCache);
+        suggestionIndex = new SuggestionIndex(CityIndex.getDefault());
+        programStatus = new ProgramStatus(geocodeCache);
+        fileManager = new FileManager(FILENAME, favouritesManager, programStatus);
+        persister = new WriteBehindPersister(fileManager, FILENAME);
+        favouritesManager.addListener(new iFavouritesListener() {
+            @Override
+            public void favouriteAdded(String location) {
+                suggestionIndex.add(location);
+                runOnFxThread(() -> showAddedFavourite(location));
+            }
+
+            @Override
+            public void favouriteRemoved(String location) {
+                runOnFxThread(() -> showRemovedFavourite(location));
+            }
+        });
+    }
 
-        if (favouritesManager.getFavourites().isEmpty() && programStatus.getCurrentLocation().isEmpty()) {
+    /**
+     * Starts saving the favourites whenever they change. Called after the
+     * saved favourites have been read, so reading them does not write the
+     * file again.
+     */
+    private void saveFavouriteChanges() {
+        favouritesManager.addListener(new iFavouritesListener() {
+            @Override
+            public void favouriteAdded(String location) {
+                persister.changed();
+            }
+
+            @Override
+            public void favouriteRemoved(String location) {
+                persister.changed();
+            }
+        });
+    }
+
+    /**
+     * Shows the favourites and the weather of the location that were read
+     * from the JSON file at startup
+     */
+    private void showRestoredStatus() {
+        if (favouritesManager.isEmpty() && programStatus.getCurrentLocation().isEmpty()) {
             currentLocation = "Helsinki";
             searchWeather();
         } else {
@@ -113,17 +278,21 @@ public class WeatherApp extends Application {
 
     /**
      * Saves the favourites and the current location to a JSON file when the
-     * program closes
+     * program closes. They are also saved in the background whenever they
+     * change, so they are not lost if the program crashes.
      *
      * @throws Exception
      */
     @Override
     public void stop() throws Exception {
-        try {
-            fileManager.writeToFile(FILENAME);
-        } catch (Exception e) {
-            e.printStackTrace();
+        if (persister == null) {
+            // Closed before the restore created anything to save
+            return;
         }
+        persister.flush();
+        locationLoader.getDataFetcher().getGeocodeCache().close();
+        SNAPSHOT_WRITER.shutdown();
+        SNAPSHOT_WRITER.awaitTermination(1, TimeUnit.SECONDS);
         System.out.println("Favourite locations: " + favouritesManager.getFavourites());
     }
 
@@ -155,6 +324,113 @@ public class WeatherApp extends Application {
 
         searchButton.setOnAction(e -> searchWeather());
         searchField.setOnAction(e -> searchButton.fire());
+
+        suggestionsMenu = new ContextMenu();
+        suggestionDelay = new PauseTransition(SUGGESTION_DELAY);
+        suggestionDelay.setOnFinished(e -> requestRemoteSuggestions());
+        searchField.setOnKeyReleased(e -> {
+            if (e.getCode() == KeyCode.ENTER || e.getCode() == KeyCode.ESCAPE) {
+                hideSuggestions();
+            } else if (!searchField.getText().equals(suggestedText)) {
+                showSuggestions(searchField.getText());
+            }
+        });
+        searchField.focusedProperty().addListener((obs, wasFocused, focused) -> {
+            if (!focused) {
+                hideSuggestions();
+            }
+        });
+    }
+
+    /**
+     * Shows the names starting with the typed text from the suggestion
+     * index right away. If there are only a few of them, the geocoding API
+     * is asked for more once the user has stopped typing for a while.
+     *
+     * @param text the text in the search field
+     */
+    private void showSuggestions(String text) {
+        suggestedText = text;
+        cancelSuggestionRequest();
+        List<String> suggestions = suggestionIndex.suggest(text, SUGGESTION_LIMIT);
+        fillSuggestions(suggestions);
+        if (suggestions.size() < SUGGESTION_LIMIT
+                && GeocodeCache.normalise(text).length() >= REMOTE_SUGGESTION_MIN_LENGTH) {
+            suggestionDelay.playFromStart();
+        } else {
+            suggestionDelay.stop();
+        }
+    }
+
+    /**
+     * Asks the geocoding API for the locations matching the typed text and
+     * adds them to the shown suggestions. The answer is ignored if the text
+     * has changed in the meantime.
+     */
+    private void requestRemoteSuggestions() {
+        String text = suggestedText;
+        CompletableFuture<List<Location>> request = locationLoader.getDataFetcher().lookUpLocationsAsync(text);
+        suggestionRequest = request;
+        request.thenAcceptAsync(found -> {
+            if (request != suggestionRequest) {
+                return;
+            }
+            suggestionRequest = null;
+            List<String> suggestions = new ArrayList<>(suggestionIndex.suggest(text, SUGGESTION_LIMIT));
+            for (Location location : found) {
+                if (suggestions.size() < SUGGESTION_LIMIT && !suggestions.contains(location.getName())) {
+                    suggestions.add(location.getName());
+                }
+            }
+            fillSuggestions(suggestions);
+        }, Platform::runLater);
+    }
+
+    /**
+     * Replaces the suggestions under the search field, hiding them if there
+     * are none
+     *
+     * @param suggestions the suggested location names
+     */
+    private void fillSuggestions(List<String> suggestions) {
+        if (suggestions.isEmpty() || !searchField.isFocused()) {
+            suggestionsMenu.hide();
+            return;
+        }
+        List<CustomMenuItem> items = new ArrayList<>();
+        for (String suggestion : suggestions) {
+            CustomMenuItem item = new CustomMenuItem(new Label(suggestion), true);
+            item.setOnAction(e -> {
+                searchField.setText(suggestion);
+                searchField.positionCaret(suggestion.length());
+                searchWeather();
+            });
+            items.add(item);
+        }
+        suggestionsMenu.getItems().setAll(items);
+        if (!suggestionsMenu.isShowing()) {
+            suggestionsMenu.show(searchField, Side.BOTTOM, 0, 0);
+        }
+    }
+
+    /**
+     * Hides the suggestions and cancels the pending suggestion request
+     */
+    private void hideSuggestions() {
+        suggestionDelay.stop();
+        cancelSuggestionRequest();
+        suggestionsMenu.hide();
+        suggestedText = searchField.getText();
+    }
+
+    /**
+     * Cancels the suggestion request that is waiting for an answer, if any
+     */
+    private void cancelSuggestionRequest() {
+        if (suggestionRequest != null) {
+            suggestionRequest.cancel(true);
+            suggestionRequest = null;
+        }
     }
 
     /**
@@ -164,6 +440,8 @@ public class WeatherApp extends Application {
         favouritesComboBox = new ComboBox<>();
         favouritesComboBox.setPromptText("Select favourite");
         favouritesComboBox.setVisibleRowCount(4);
+        favouritesComboBox.setCellFactory(list -> new FavouriteCell());
+        favouritesComboBox.setOnShowing(e -> refreshFavourites());
 
         favouritesComboBox.setOnAction(e -> {
             String selectedLocation = favouritesComboBox.getValue();
@@ -174,14 +452,17 @@ public class WeatherApp extends Application {
         });
 
         clearFavouritesButton = new Button("Clear favourites");
+        clearFavouritesButton.setDisable(true);
+        favouritesComboBox.setDisable(true);
 
         clearFavouritesButton.setOnAction(e -> {
             favouritesManager.clearFavourites();
-            updateFavouritesComboBox();
-            clearFavouritesButton.setDisable(true);
-            favouritesComboBox.setDisable(true);
         });
 
+        dashboardButton = new ToggleButton("Dashboard");
+        dashboardButton.setDisable(true);
+        dashboardButton.selectedProperty().addListener((obs, wasSelected, selected) -> showDashboard(selected));
+
         favouriteButton.setDisable(true);
         favouriteIconView.setFitWidth(24);
         favouriteIconView.setFitHeight(24);
@@ -191,14 +472,159 @@ public class WeatherApp extends Application {
     }
 
     /**
-     * Updates the favourites in the combo box when they change
+     * Refreshes the current temperature of every favourite in the background.
+     * Favourites that can't be refreshed keep their previous temperature. The
+     * icons of the conditions are loaded on the background pool, as they may
+     * have to be downloaded, and not on the threads of the refresher or the
+     * DataFetcher.
+     */
+    private void refreshFavourites() {
+        favouritesRefresher.refreshAll(favouritesManager.getFavourites()).thenApplyAsync(result -> {
+            for (CurrentConditions conditions : result.values()) {
+                loadImage(conditions.getIconUrl(), HOUR_ICON_SIZE);
+            }
+            return result;
+        }, BACKGROUND).thenAccept(result -> Platform.runLater(() -> showFavouriteConditions(result)));
+    }
+
+    /**
+     * Shows refreshed conditions of the favourites in the combo box and, if it
+     * is open, in the dashboard
+     *
+     * @param conditions the current weather of the refreshed favourites
      */
-    private void updateFavouritesComboBox() {
-        List<String> favourites = favouritesManager.getFavourites();
-        favouritesComboBox.setItems(FXCollections.observableArrayList(favourites));
-        if (!favourites.isEmpty()) {
-            clearFavouritesButton.setDisable(false);
-            favouritesComboBox.setDisable(false);
+    private void showFavouriteConditions(Map<String, CurrentConditions> conditions) {
+        conditions.forEach((location, current) -> favouriteTemperatures.put(location, current.getTemperature()));
+        if (dashboardButton.isSelected()) {
+            updateDashboard(conditions);
+        }
+    }
+
+    /**
+     * Shows or hides the dashboard of all favourites in place of the
+     * forecasts
+     *
+     * @param show true to show the dashboard, false to show the forecasts
+     */
+    private void showDashboard(boolean show) {
+        if (!show) {
+            root.setCenter(dailyForecastBox);
+            root.setBottom(hourlyNode());
+            return;
+        }
+        if (dashboardPane == null) {
+            dashboardPane = new FlowPane(10, 10);
+            dashboardPane.setPadding(new Insets(10, 0, 10, 0));
+        }
+        root.setCenter(dashboardPane);
+        root.setBottom(null);
+        refreshFavourites();
+    }
+
+    /**
+     * Updates the dashboard with the current weather of the favourites.
+     * Clicking a favourite shows its forecasts.
+     *
+     * @param conditions the current weather of the favourites
+     */
+    private void updateDashboard(Map<String, CurrentConditions> conditions) {
+        dashboardPane.getChildren().clear();
+
+        for (Map.Entry<String, CurrentConditions> entry : conditions.entrySet()) {
+            CurrentConditions current = entry.getValue();
+            Label nameLabel = new Label(entry.getKey());
+            Label tempLabel = new Label(Math.round(current.getTemperature()) + "°C");
+            Label descLabel = new Label(current.getDescription());
+            ImageView iconView = new ImageView(loadImage(current.getIconUrl(), HOUR_ICON_SIZE));
+
+            nameLabel.getStyleClass().add("forecast-label");
+            tempLabel.getStyleClass().add("forecast-label");
+
+            VBox favouriteBox = new VBox(0, nameLabel, iconView, tempLabel, descLabel);
+            favouriteBox.getStyleClass().add("vignette-box");
+            favouriteBox.setMinWidth(150);
+            favouriteBox.setPadding(new Insets(5));
+            favouriteBox.setAlignment(Pos.CENTER);
+            favouriteBox.setOnMouseClicked(e -> {
+                dashboardButton.setSelected(false);
+                searchField.setText(entry.getKey());
+                searchWeather();
+            });
+
+            dashboardPane.getChildren().add(favouriteBox);
+        }
+    }
+
+    /**
+     * A cell of the favourites combo box, showing the location and its latest
+     * refreshed temperature
+     */
+    private class FavouriteCell extends ListCell<String> {
+
+        private final MapChangeListener<String, Double> temperatureListener = change -> {
+            if (change.getKey().equals(getItem())) {
+                updateItem(getItem(), isEmpty());
+            }
+        };
+
+        FavouriteCell() {
+            favouriteTemperatures.addListener(new WeakMapChangeListener<>(temperatureListener));
+        }
+
+        @Override
+        protected void updateItem(String location, boolean empty) {
+            super.updateItem(location, empty);
+            if (empty || location == null) {
+                setText(null);
+                return;
+            }
+            Double temperature = favouriteTemperatures.get(location);
+            setText(temperature == null ? location : location + "  " + Math.round(temperature) + "°C");
+        }
+    }
+
+    /**
+     * Adds a new favourite to the favourites combo box and enables the
+     * favourite controls
+     *
+     * @param location the added location
+     */
+    private void showAddedFavourite(String location) {
+        favouritesComboBox.getItems().add(location);
+        clearFavouritesButton.setDisable(false);
+        favouritesComboBox.setDisable(false);
+        dashboardButton.setDisable(false);
+    }
+
+    /**
+     * Removes a location that is no longer a favourite from the favourites
+     * combo box, and disables the favourite controls when it was the last
+     * favourite
+     *
+     * @param location the removed location
+     */
+    private void showRemovedFavourite(String location) {
+        favouritesComboBox.getItems().remove(location);
+        favouriteTemperatures.remove(location);
+        if (favouritesComboBox.getItems().isEmpty()) {
+            clearFavouritesButton.setDisable(true);
+            favouritesComboBox.setDisable(true);
+            dashboardButton.setSelected(false);
+            dashboardButton.setDisable(true);
+        }
+    }
+
+    /**
+     * Runs the given action on the JavaFX application thread, immediately if
+     * called on it
+     *
+     * @param action the action to run
+     */
+    private static void runOnFxThread(Runnable action) {
+        if (Platform.isFxApplicationThread()) {
+            action.run();
+        } else {
+            Platform.runLater(action);
         }
     }
 
@@ -224,7 +650,9 @@ public class WeatherApp extends Application {
     private VBox createHeaderBox(HBox searchBox) {
         unknownLabel = new Label();
         unknownLabel.setPadding(new Insets(0, 0, 0, 10));
-        HBox unknownLocBox = new HBox(favouritesComboBox, clearFavouritesButton, unknownLabel);
+        chartButton = new ToggleButton("Chart");
+        chartButton.selectedProperty().addListener((obs, wasSelected, selected) -> showHourlyChart(selected));
+        HBox unknownLocBox = new HBox(favouritesComboBox, clearFavouritesButton, dashboardButton, chartButton, unknownLabel);
         unknownLocBox.setPadding(new Insets(5, 5, 5, 10));
 
         locationLabel = new Label();
@@ -304,142 +732,361 @@ public class WeatherApp extends Application {
     }
 
     /**
-     * Updates the hourly forecast contained in hourlyForecastBox
+     * Creates the horizontally scrolling list of the hourly forecast. Only
+     * the cells that fit in the view exist, and they are reused while the
+     * list is scrolled.
      *
-     * @param hourlyData the hourly weather data to be displayed
-     * @throws IOException
+     * @return ListView the created list
      */
-    private void updateHourlyForecastBox(ArrayList<WeatherData> hourlyData) throws IOException {
+    private ListView<Integer> createHourlyForecastView() {
+        ListView<Integer> view = new ListView<>();
+        view.setOrientation(Orientation.HORIZONTAL);
+        view.setFixedCellSize(HOUR_CELL_WIDTH);
+        view.setPrefHeight(HOUR_LIST_HEIGHT);
+        view.setFocusTraversable(false);
+        view.setCellFactory(list -> new HourCell());
+        view.getStyleClass().add("hourly-list");
+        view.setId("forecastBox");
+        BorderPane.setMargin(view, new Insets(10, 0, 0, 0));
+        return view;
+    }
 
-        if (hourlyForecastBox == null) {
-            hourlyForecastBox = createForecastBox();
-            root.setBottom(hourlyForecastBox);
+    /**
+     * A cell of the hourly forecast, showing the time, weather icon,
+     * temperature, wind and precipitation of one hour. The items of the list
+     * are positions in hourlySeries, which the cell reads the hour from. The
+     * nodes of the cell are created once and only updated when the cell
+     * shows another hour.
+     */
+    private class HourCell extends ListCell<Integer> {
+
+        private final Label hourLabel = new Label();
+        private final ImageView iconView = new ImageView();
+        private final Label tempLabel = new Label();
+        private final ImageView windIconView = new ImageView();
+        private final Label windSpeedLabel = new Label();
+        private final Label precipLabel = new Label();
+        private final VBox box = new VBox(0, hourLabel, iconView, tempLabel, windIconView, windSpeedLabel, precipLabel);
+        private ForecastSeries shownSeries;
+
+        HourCell() {
+            iconView.setFitWidth(HOUR_ICON_SIZE);
+            iconView.setFitHeight(HOUR_ICON_SIZE);
+            windIconView.setPreserveRatio(true);
+            windIconView.setFitWidth(HOUR_WIND_ICON_SIZE);
+            windIconView.setFitHeight(HOUR_WIND_ICON_SIZE);
+            hourLabel.getStyleClass().add("forecast-label");
+            tempLabel.getStyleClass().add("forecast-label");
+            windSpeedLabel.getStyleClass().add("forecast-label");
+            precipLabel.getStyleClass().add("forecast-label");
+            box.getStyleClass().add("vignette-box");
+            box.setAlignment(Pos.CENTER);
+            setText(null);
         }
 
-        hourlyForecastBox.getChildren().clear();
-
-        for (int i = 0; i < 12; i++) {
-            WeatherData data = hourlyData.get(i);
-            long roundedTemp = Math.round(data.getTemperature());
-            LocalDateTime dateTime = LocalDateTime.parse(data.getHour(), DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-            String hour = dateTime.format(DateTimeFormatter.ofPattern("HH:mm"));
-            Label hourLabel = new Label(hour);
-            Label hourlyTempLabel = new Label(roundedTemp + "°C");
-            long roundedWindSpeed = Math.round(data.getWindSpeed());
-            Label windSpeedLabel = new Label(roundedWindSpeed + " m/s");
-            Label precipLabel = new Label(data.getPrecipitation() + " mm");
-
-            String iconPath = data.getIconPath();
-            Image icon = downloadIcon(iconPath.substring(34));
-            ImageView hourIconView = new ImageView(icon);
+        /**
+         * The items are positions in the series, so the position of a cell
+         * stays the same when the series is replaced. The cell is relabelled
+         * only if the hour it shows differs from the hour at its position in
+         * the new series.
+         */
+        @Override
+        protected boolean isItemChanged(Integer oldIndex, Integer newIndex) {
+            return shownSeries == null || oldIndex == null || newIndex == null
+                    || oldIndex >= shownSeries.size() || newIndex >= hourlySeries.size()
+                    || !shownSeries.sameHour(oldIndex, hourlySeries, newIndex);
+        }
 
-            String windIconPath = data.getWindDirectionPath(data.getWindDirection());
-            Image windIcon = new Image(windIconPath);
-            ImageView windIconView = new ImageView(windIcon);
+        @Override
+        protected void updateItem(Integer index, boolean empty) {
+            super.updateItem(index, empty);
+            if (empty || index == null || index >= hourlySeries.size()) {
+                shownSeries = null;
+                setGraphic(null);
+                return;
+            }
+            shownSeries = hourlySeries;
+            LocalDateTime dateTime = LocalDateTime.ofEpochSecond(hourlySeries.getTime(index), 0, ZoneOffset.UTC);
+            hourLabel.setText(dateTime.getHour() == 0
+                    ? dateTime.format(DAY_NAME_FORMAT) : dateTime.format(HOUR_FORMAT));
+            iconView.setImage(hourIcon(hourlySeries, index));
+            tempLabel.setText(Math.round(hourlySeries.getTemperature(index)) + "°C");
+            windIconView.setImage(loadImage(WeatherData.windDirectionPath(hourlySeries.getWindDirection(index)),
+                    HOUR_WIND_ICON_SIZE));
+            windSpeedLabel.setText(Math.round(hourlySeries.getWindSpeed(index)) + " m/s");
+            precipLabel.setText(hourlySeries.getPrecipitation(index) + " mm");
+            setGraphic(box);
+        }
+    }
 
-            windIconView.setPreserveRatio(true);
-            windIconView.setFitWidth(24);
-            windIconView.setFitHeight(24);
+    /**
+     * Returns the weather icon of an hour of the hourly forecast
+     *
+     * @param series the hourly forecast
+     * @param index the position of the hour
+     * @return the icon, or null if the hour has no icon
+     */
+    private Image hourIcon(ForecastSeries series, int index) {
+        String icon = series.getIcon(index);
+        return icon.isEmpty() ? null : loadImage(DataFetcher.iconUrl(icon), HOUR_ICON_SIZE);
+    }
 
-            hourIconView.setFitWidth(64);
-            hourIconView.setFitHeight(64);
+    /**
+     * Shows every hour of the hourly forecast in hourlyForecastView and, if
+     * it is shown, in the chart. Only the hours that differ from the shown
+     * ones are updated, so nothing is touched at all when a refresh brings
+     * the same forecast.
+     *
+     * @param series the hourly forecast to be displayed
+     * @param newLocation whether the forecast is of another location than
+     * the shown one, in which case the list is scrolled to the start
+     */
+    private void updateHourlyForecastView(ForecastSeries series, boolean newLocation) {
 
-            hourLabel.getStyleClass().add("forecast-label");
-            hourlyTempLabel.getStyleClass().add("forecast-label");
-            windSpeedLabel.getStyleClass().add("forecast-label");
-            precipLabel.getStyleClass().add("forecast-label");
+        if (hourlyForecastView == null) {
+            hourlyForecastView = createHourlyForecastView();
+            root.setBottom(hourlyNode());
+        }
 
-            VBox hourForecastBox = new VBox(0, hourLabel, hourIconView, hourlyTempLabel, windIconView, windSpeedLabel, precipLabel);
-            hourForecastBox.getStyleClass().add("vignette-box");
-            hourForecastBox.setMinWidth(50);
-            hourForecastBox.setAlignment(Pos.CENTER);
-            HBox.setHgrow(hourForecastBox, Priority.ALWAYS);
+        ForecastSeries shown = hourlySeries;
+        hourlySeries = series;
+        List<Integer> items = hourlyForecastView.getItems();
+        boolean changed = shown.size() != series.size();
+        int common = Math.min(shown.size(), series.size());
+        for (int i = 0; i < common; i++) {
+            if (!shown.sameHour(i, series, i)) {
+                items.set(i, i);
+                changed = true;
+            }
+        }
+        if (items.size() > series.size()) {
+            items.subList(series.size(), items.size()).clear();
+        }
+        for (int i = items.size(); i < series.size(); i++) {
+            items.add(i);
+        }
+        if (changed && hourlyChart != null && chartButton.isSelected()) {
+            hourlyChart.setSeries(series);
+        }
+        if (newLocation) {
+            hourlyForecastView.scrollTo(0);
+            if (hourlyChartPane != null) {
+                hourlyChartPane.setHvalue(0);
+            }
+        }
+    }
 
-            hourlyForecastBox.getChildren().add(hourForecastBox);
+    /**
+     * Switches the hourly forecast between the list and the chart. The chart
+     * is created the first time it is shown, and it is drawn again when it
+     * is shown, as it is not kept up to date while the list is shown.
+     *
+     * @param show true to show the chart, false to show the list
+     */
+    private void showHourlyChart(boolean show) {
+        if (show) {
+            if (hourlyChart == null) {
+                hourlyChart = new HourlyChart(HOUR_LIST_HEIGHT - 20);
+                hourlyChartPane = new ScrollPane(hourlyChart);
+                hourlyChartPane.setPrefHeight(HOUR_LIST_HEIGHT);
+                hourlyChartPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
+                hourlyChartPane.setPannable(true);
+                hourlyChartPane.getStyleClass().addAll("vignette-box", "hourly-chart");
+                hourlyChartPane.setId("forecastBox");
+            }
+            hourlyChart.setSeries(hourlySeries);
+        }
+        if (!dashboardButton.isSelected()) {
+            root.setBottom(hourlyNode());
         }
     }
 
     /**
-     * Updates the daily forecast box container with new weather data
+     * Returns the node showing the hourly forecast, the chart or the list
+     *
+     * @return the shown hourly forecast node, or null if there is none yet
+     */
+    private Node hourlyNode() {
+        return chartButton != null && chartButton.isSelected() ? hourlyChartPane : hourlyForecastView;
+    }
+
+    /**
+     * Shows the daily forecast in dailyForecastBox. The views of the days
+     * are kept between updates: views are only added or removed when the
+     * number of days changes, and a view only changes the labels and icons
+     * whose values differ from the shown ones.
      *
      * @param dailyForecast the daily forecast data to be displayed
-     * @throws IOException
      */
-    private void updateForecastBox(ArrayList<WeatherData> dailyForecast) throws IOException {
+    private void updateForecastBox(List<WeatherData> dailyForecast) {
 
         if (dailyForecastBox == null) {
             dailyForecastBox = createForecastBox();
             root.setCenter(dailyForecastBox);
         }
 
-        dailyForecastBox.getChildren().clear();
+        while (dayViews.size() > dailyForecast.size()) {
+            DayView removed = dayViews.remove(dayViews.size() - 1);
+            dailyForecastBox.getChildren().remove(removed.box);
+        }
+        while (dayViews.size() < dailyForecast.size()) {
+            DayView added = new DayView();
+            dayViews.add(added);
+            dailyForecastBox.getChildren().add(added.box);
+        }
+        for (int i = 0; i < dailyForecast.size(); i++) {
+            dayViews.get(i).show(dailyForecast.get(i));
+        }
+    }
 
-        for (WeatherData data : dailyForecast) {
-            String date = data.getDate();
-            String[] dateParts = date.split(" ");
-            String formattedDate = dateParts[0] + " " + dateParts[2] + " " + dateParts[1];
-            Label dayLabel = new Label(formattedDate);
-            long roundedMinTemp = Math.round(data.getMinTemp());
-            long roundedMaxTemp = Math.round(data.getMaxTemp());
-            Label minTempLabel = new Label(roundedMinTemp + "°C");
-            Label maxTempLabel = new Label(roundedMaxTemp + "°C");
-
-            String weatherIconPath = data.getIconPath();
-            Image dailyWeatherIcon = downloadIcon(weatherIconPath.substring(34));
-            ImageView dayIconView = new ImageView(dailyWeatherIcon);
+    /**
+     * The view of one day of the daily forecast, showing the day, weather
+     * icon and minimum and maximum temperatures. Setting a label or an image
+     * to the value it already has does not change the scene graph, so
+     * showing unchanged data causes no layout or CSS pass.
+     */
+    private class DayView {
 
+        private final Label dayLabel = new Label();
+        private final ImageView iconView = new ImageView();
+        private final Label minTempLabel = new Label();
+        private final Label maxTempLabel = new Label();
+        private final VBox box = new VBox(0, dayLabel, iconView, minTempLabel, maxTempLabel);
+
+        DayView() {
             dayLabel.getStyleClass().add("forecast-label");
             minTempLabel.getStyleClass().add("forecast-label");
             maxTempLabel.getStyleClass().add("forecast-label");
+            box.getStyleClass().add("vignette-box");
+            box.setMinWidth(50);
+            box.setAlignment(Pos.CENTER);
+            HBox.setHgrow(box, Priority.ALWAYS);
+        }
 
-            VBox dayForecastBox = new VBox(0, dayLabel, dayIconView, minTempLabel, maxTempLabel);
-            dayForecastBox.getStyleClass().add("vignette-box");
-            dayForecastBox.setMinWidth(50);
-            dayForecastBox.setAlignment(Pos.CENTER);
-            HBox.setHgrow(dayForecastBox, Priority.ALWAYS);
-
-            dailyForecastBox.getChildren().add(dayForecastBox);
+        void show(WeatherData data) {
+            dayLabel.setText(formatDayLabel(data.getDate()));
+            iconView.setImage(loadImage(data.getIconPath(), DAY_ICON_SIZE));
+            minTempLabel.setText(Math.round(data.getMinTemp()) + "°C");
+            maxTempLabel.setText(Math.round(data.getMaxTemp()) + "°C");
         }
     }
 
     /**
-     * Handles fetching and loading of the weather icons. The icons are cached;
-     * they are only downloaded when they don't exist locally. This will speed
-     * up loading the forecasts.
+     * Formats the date of a daily forecast for its label, e.g.
+     * "Sat Oct 18 12:00:00 EEST 2025" becomes "Sat 18 Oct"
      *
-     * @param iconName the name of the icon to be fetched
-     * @return Image the image fetched, or null if it can't be loaded
+     * @param date the date as returned by DataFetcher.unixToString
+     * @return String the formatted date
      */
-    private Image downloadIcon(String iconName) {
-        try {
-            String localIconPath = "src/main/resources/cache/" + iconName;
-            File localIconFile = new File(localIconPath);
+    static String formatDayLabel(String date) {
+        String[] dateParts = date.split(" ");
+        return dateParts[0] + " " + dateParts[2] + " " + dateParts[1];
+    }
 
-            File parentDirectory = localIconFile.getParentFile();
-            if (!parentDirectory.exists()) {
-                Files.createDirectories(parentDirectory.toPath());
-            }
+    /**
+     * Returns the image at the given path, scaled to the given size. The
+     * images come from the shared image cache, keyed by the icon id, i.e.
+     * the file name of OpenWeatherMap icons and the resource path of bundled
+     * icons. OpenWeatherMap icons are read from the icon pack, and only icons
+     * missing from the pack are loaded through downloadIcon. Calling this on
+     * the JavaFX application thread for an image that was loaded in the
+     * background does no I/O and no decoding.
+     *
+     * @param path the resource path or URL of the image
+     * @param size the width and height the image is shown at
+     * @return Image the loaded image, or null if it can't be loaded
+     */
+    private Image loadImage(String path, int size) {
+        return loadImage(path, size, true);
+    }
 
-            if (!localIconFile.exists()) {
-                URL iconUrl = new URL(ICON_URL_PREFIX + iconName);
-                try (InputStream in = iconUrl.openStream()) {
-                    Files.copy(in, localIconFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-                } catch (IOException e) {
-                    return null;
-                }
+    /**
+     * Returns the image at the given path, scaled to the given size
+     *
+     * @param path the resource path or URL of the image
+     * @param size the width and height the image is shown at
+     * @param download whether to wait for an icon that has to be downloaded
+     * @return Image the loaded image, or null if it can't be loaded
+     */
+    private Image loadImage(String path, int size, boolean download) {
+        if (path.startsWith(ICON_URL_PREFIX)) {
+            return IMAGE_CACHE.get(path.substring(ICON_URL_PREFIX.length()), size, iconName -> {
+                InputStream packed = IconPack.getDefault().open(iconName);
+                return packed != null ? packed : downloadIcon(iconName, download);
+            });
+        }
+        return IMAGE_CACHE.get(path, size, WeatherApp.class::getResourceAsStream);
+    }
+
+    /**
+     * Loads every image the given snapshot needs, so that showing it does no
+     * I/O on the JavaFX application thread
+     *
+     * @param snapshot the loaded data of the location
+     * @param download whether to wait for icons that have to be downloaded
+     */
+    private void preloadImages(LocationSnapshot snapshot, boolean download) {
+        WeatherData current = snapshot.getCurrentWeather();
+        if (!current.getIconPath().isEmpty()) {
+            loadImage(current.getIconPath(), WEATHER_ICON_SIZE, download);
+        }
+        loadImage(current.getWindDirectionPath(current.getWindDirection()), DETAIL_ICON_SIZE, download);
+        for (WeatherData data : snapshot.getDailyForecast()) {
+            loadImage(data.getIconPath(), DAY_ICON_SIZE, download);
+        }
+        ForecastSeries hours = snapshot.getHourlyForecast();
+        for (int i = 0; i < hours.size(); i++) {
+            if (hours.getCondition(i) != ForecastSeries.NO_CONDITION) {
+                loadImage(DataFetcher.iconUrl(hours.getIcon(i)), HOUR_ICON_SIZE, download);
             }
+            loadImage(WeatherData.windDirectionPath(hours.getWindDirection(i)), HOUR_WIND_ICON_SIZE, download);
+        }
+    }
 
-            Image iconImage = new Image(localIconFile.toURI().toString());
-            return iconImage;
-        } catch (IOException e) {
+    /**
+     * Handles fetching and loading of the weather icons that are not in the
+     * icon pack. The icons are cached in the user's cache directory; they are
+     * only downloaded when they don't exist locally. The JavaFX application
+     * thread never waits for a download; the icon is shown once it has been
+     * downloaded. Other threads wait at most ICON_WAIT_MILLIS, after which
+     * the icon is left out.
+     *
+     * @param iconName the name of the icon to be fetched
+     * @param wait whether to wait for the icon to be downloaded
+     * @return InputStream the local copy of the icon, or null if it can't be
+     * fetched
+     */
+    private InputStream downloadIcon(String iconName, boolean wait) {
+        CompletableFuture<Path> icon = ICON_DOWNLOADER.fetch(iconName);
+        try {
+            Path file = wait && !Platform.isFxApplicationThread()
+                    ? icon.orTimeout(ICON_WAIT_MILLIS, TimeUnit.MILLISECONDS).join()
+                    : icon.getNow(null);
+            return file != null ? Files.newInputStream(file) : null;
+        } catch (CompletionException | IOException e) {
             return null;
         }
     }
 
+    /**
+     * Downloads the weather icons that are not in the icon pack in the
+     * background, so that they are cached before any forecast needs them
+     */
+    private void prewarmIcons() {
+        List<String> missing = new ArrayList<>();
+        for (String iconName : IconDownloader.ALL_ICONS) {
+            if (!IconPack.getDefault().contains(iconName)) {
+                missing.add(iconName);
+            }
+        }
+        ICON_DOWNLOADER.prewarm(missing);
+    }
+
     /**
      * Searches the weather forecast for the given location
      */
     private void searchWeather() {
+        hideSuggestions();
         String locationName;
 
         String lastLocation = programStatus.getCurrentLocation();
@@ -454,12 +1101,87 @@ public class WeatherApp extends Application {
             locationName = userInput;
         }
 
-        DataFetcher dataFetcher = new DataFetcher();
-        WeatherData weatherData = new WeatherData();
+        if (currentLoad != null) {
+            currentLoad.cancel();
+        }
+        Task<LocationSnapshot> load = createLoadTask(locationName);
+        currentLoad = load;
+        load.setOnSucceeded(e -> {
+            if (load == currentLoad) {
+                showSnapshot(load.getValue());
+                rememberSnapshot(load.getValue());
+            }
+        });
+        load.setOnFailed(e -> {
+            if (load == currentLoad) {
+                load.getException().printStackTrace();
+                showSnapshot(null);
+            }
+        });
+        BACKGROUND.execute(load);
+    }
 
-        boolean fetchSuccess = weatherData.fetchData(dataFetcher, locationName);
+    /**
+     * Creates the background task that loads the weather of a location and
+     * the images needed to show it. Cancelling the task stops it waiting for
+     * the requests, but the requests themselves run to the end, as other
+     * loads may share them, and their results still fill the caches. The
+     * task changes nothing else; a load that succeeds is remembered by
+     * rememberSnapshot only if it has not been superseded.
+     *
+     * @param locationName the name of the location to load
+     * @return Task the created task
+     */
+    private Task<LocationSnapshot> createLoadTask(String locationName) {
+        return new Task<>() {
+            @Override
+            protected LocationSnapshot call() throws Exception {
+                CompletableFuture<LocationSnapshot> request = locationLoader.loadAsync(locationName);
+                LocationSnapshot snapshot;
+                try {
+                    snapshot = request.get();
+                } catch (InterruptedException e) {
+                    request.cancel(true);
+                    throw e;
+                }
+                if (snapshot == null || isCancelled()) {
+                    return snapshot;
+                }
+                preloadImages(snapshot, true);
+                return snapshot;
+            }
+        };
+    }
 
-        if (!fetchSuccess) {
+    /**
+     * Makes a loaded location the current one: it is saved as the location
+     * of the next start, offered as a suggestion, and stored as the snapshot
+     * shown first on the next start. Called on the JavaFX thread for the
+     * latest load only, so a slower earlier search can't overwrite a newer
+     * one, and only after the snapshot has been shown, so a snapshot that
+     * can't be shown is never stored.
+     *
+     * @param snapshot the loaded data of the location, or null
+     */
+    private void rememberSnapshot(LocationSnapshot snapshot) {
+        if (snapshot == null) {
+            return;
+        }
+        programStatus.setCurrentLocation(new Location(snapshot.getLocationName(),
+                snapshot.getLatitude(), snapshot.getLongitude()));
+        persister.changed();
+        suggestionIndex.add(snapshot.getLocationName());
+        SNAPSHOT_WRITER.execute(() -> snapshotStore.save(snapshot));
+    }
+
+    /**
+     * Shows a loaded location, or the "Unknown location" warning if the
+     * location could not be loaded
+     *
+     * @param snapshot the loaded data of the location, or null
+     */
+    private void showSnapshot(LocationSnapshot snapshot) {
+        if (snapshot == null) {
             unknownLabel.setText("Unknown location");
             unknownLabel.getStyleClass().add("unknown-label");
             searchField.setText(currentLocation);
@@ -467,11 +1189,43 @@ public class WeatherApp extends Application {
             return;
         }
 
-        programStatus.setCurrentLocation(locationName);
+        Logger.getLogger(WeatherApp.class.getName()).log(Level.FINE, "{0}",
+                locationLoader.getDataFetcher().getResponseCache());
+        Logger.getLogger(WeatherApp.class.getName()).log(Level.FINE, "{0}", IMAGE_CACHE);
+
+        boolean newLocation = !snapshot.getLocationName().equals(currentLocation);
+        dashboardButton.setSelected(false);
+        displayWeather(snapshot.getCurrentWeather());
+        searchForecast(snapshot);
+        searchHourlyForecast(snapshot, newLocation);
+        unknownLabel.getStyleClass().remove("stale-label");
+        logFirstPaint();
+    }
 
-        displayWeather(weatherData);
-        searchForecast();
-        searchHourlyForecast();
+    /**
+     * Shows the snapshot that was stored when the program last ran, marked
+     * with the time it was fetched, until the location has been refreshed
+     *
+     * @param snapshot the stored data of the location
+     */
+    private void showStaleSnapshot(LocationSnapshot snapshot) {
+        showSnapshot(snapshot);
+        String fetched = STALE_FORMAT.format(Instant.ofEpochMilli(snapshot.getFetchedAt())
+                .atZone(ZoneId.systemDefault()));
+        unknownLabel.setText("Updated " + fetched + ", refreshing...");
+        unknownLabel.getStyleClass().add("stale-label");
+    }
+
+    /**
+     * Logs the time from the start of the program to the first shown
+     * location
+     */
+    private void logFirstPaint() {
+        if (!painted) {
+            painted = true;
+            Logger.getLogger(WeatherApp.class.getName()).log(Level.FINE, "First paint {0} ms after start",
+                    (System.nanoTime() - startNanos) / 1_000_000);
+        }
     }
 
     /**
@@ -499,7 +1253,7 @@ public class WeatherApp extends Application {
         locationLabel.setText(currentLocation);
         descLabel.setText(description);
         tempLabel.setText(roundedTemp + "°C");
-        weatherIcon.setImage(new Image(weatherData.getIconPath()));
+        weatherIcon.setImage(loadImage(weatherData.getIconPath(), WEATHER_ICON_SIZE));
         precipLabel.setText(weatherData.getPrecipitation() + " mm");
         precipIconView.setImage(precipIcon);
         long roundedWindSpeed = Math.round(weatherData.getWindSpeed());
@@ -507,7 +1261,7 @@ public class WeatherApp extends Application {
         windIconView.setImage(windIcon);
         
         String windIconPath = weatherData.getWindDirectionPath(weatherData.getWindDirection());
-        windDirIcon.setImage(new Image(windIconPath));
+        windDirIcon.setImage(loadImage(windIconPath, DETAIL_ICON_SIZE));
 
         updateTemperatureColor();
         updateFavouriteButtonIcon();
@@ -544,12 +1298,10 @@ public class WeatherApp extends Application {
         String temperatureText = tempLabel.getText();
         double temperature = Double.parseDouble(temperatureText.substring(0, temperatureText.length() - 2).trim());
 
-        tempLabel.getStyleClass().removeAll("cold", "warm");
-        
-        if (temperature < 0) {
-            tempLabel.getStyleClass().add("cold");
-        } else {
-            tempLabel.getStyleClass().add("warm");
+        String styleClass = temperature < 0 ? "cold" : "warm";
+        if (!tempLabel.getStyleClass().contains(styleClass)) {
+            tempLabel.getStyleClass().removeAll("cold", "warm");
+            tempLabel.getStyleClass().add(styleClass);
         }
 
         tempLabel.setText((long) temperature + "°C");
@@ -564,12 +1316,7 @@ public class WeatherApp extends Application {
         } else {
             favouritesManager.removeFavourite(currentLocation);
             favouriteIconView.setImage(favouriteIconImage);
-            if (favouritesManager.getFavourites().isEmpty()) {
-                favouritesComboBox.setDisable(true);
-                clearFavouritesButton.setDisable(true);
-            }
         }
-        updateFavouritesComboBox();
         System.out.println("Favourite locations: " + favouritesManager.getFavourites());
 
         updateFavouriteButtonIcon();
@@ -591,16 +1338,15 @@ public class WeatherApp extends Application {
     }
 
     /**
-     * Searches for the daily forecast for the given location
+     * Shows the daily forecast of the loaded location
+     *
+     * @param snapshot the loaded data of the location
      */
-    private void searchForecast() {
+    private void searchForecast(LocationSnapshot snapshot) {
         try {
-            WeatherForecast weatherForecast = new WeatherForecast();
-            weatherForecast.fetchDailyData(currentLocation);
+            displayForecast(snapshot.getDailyForecast());
 
-            displayForecast(weatherForecast);
-
-            updateForecastBox(weatherForecast.getDailyForecast());
+            updateForecastBox(snapshot.getDailyForecast());
         } catch (Exception e) {
         }
     }
@@ -608,10 +1354,9 @@ public class WeatherApp extends Application {
     /**
      * Displays the daily forecast for the given location
      *
-     * @param weatherForecast the weather data to be displayed
+     * @param dailyForecast the weather data to be displayed
      */
-    private void displayForecast(WeatherForecast weatherForecast) {
-        ArrayList<WeatherData> dailyForecast = weatherForecast.getDailyForecast();
+    private void displayForecast(List<WeatherData> dailyForecast) {
         for (WeatherData data : dailyForecast) {
             System.out.println("Location: " + data.getLocationName());
             System.out.println("Date: " + data.getDate());
@@ -624,39 +1369,19 @@ public class WeatherApp extends Application {
     }
 
     /**
-     * Searches for the hourly forecast for the given location
+     * Shows the hourly forecast of the loaded location
+     *
+     * @param snapshot the loaded data of the location
+     * @param newLocation whether another location was shown before
      */
-    private void searchHourlyForecast() {
+    private void searchHourlyForecast(LocationSnapshot snapshot, boolean newLocation) {
         try {
-            HourlyForecast hourlyForecast = new HourlyForecast();
-            hourlyForecast.fetchHourlyData(currentLocation);
-
-            displayHourlyForecast(hourlyForecast);
-
-            updateHourlyForecastBox(hourlyForecast.getHourlyForecast());
+            updateHourlyForecastView(snapshot.getHourlyForecast(), newLocation);
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
-    /**
-     * Displays the hourly forecast for the given location
-     *
-     * @param hourlyForecast the weather data to be displayed
-     */
-    private void displayHourlyForecast(HourlyForecast hourlyForecast) {
-        ArrayList<WeatherData> hourlyData = hourlyForecast.getHourlyForecast();
-        for (WeatherData data : hourlyData) {
-            System.out.println("Hour: " + data.getHour());
-            System.out.println("Temperature: " + data.getTemperature() + "°C");
-            System.out.println("Icon Path: " + data.getIconPath());
-            System.out.println("Wind Speed: " + data.getWindSpeed());
-            System.out.println("Precipitation: " + data.getPrecipitation());
-            System.out.println("Wind direction: " + data.getWindDirection());
-            System.out.println("-----------------------------------");
-        }
-    }
-
     /**
      * Starts the application
      *
@@ -0,0 +1,72 @@
+package fi.tuni.prog3.weatherapp;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The immutable current weather, daily forecast and hourly forecast of one
+ * location, as fetched together by iAsyncAPI.getWeatherAsync. A part that
+ * could not be fetched is null.
+ *
+ * @author Melina
+ */
+public final class WeatherBundle {
+
+    private final CurrentConditions current;
+    private final List<DailyForecastEntry> daily;
+    private final List<HourlyForecastEntry> hourly;
+
+    /**
+     * Constructs a bundle. The forecast lists are wrapped as unmodifiable
+     * lists.
+     *
+     * @param current The current weather, or null
+     * @param daily The daily forecast, or null
+     * @param hourly The hourly forecast, or null
+     */
+    public WeatherBundle(CurrentConditions current, List<DailyForecastEntry> daily,
+            List<HourlyForecastEntry> hourly) {
+        this.current = current;
+        this.daily = daily == null ? null : Collections.unmodifiableList(daily);
+        this.hourly = hourly == null ? null : Collections.unmodifiableList(hourly);
+    }
+
+    public CurrentConditions getCurrent() {
+        return current;
+    }
+
+    public List<DailyForecastEntry> getDaily() {
+        return daily;
+    }
+
+    public List<HourlyForecastEntry> getHourly() {
+        return hourly;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof WeatherBundle)) {
+            return false;
+        }
+        WeatherBundle other = (WeatherBundle) obj;
+        return Objects.equals(current, other.current)
+                && Objects.equals(daily, other.daily)
+                && Objects.equals(hourly, other.hourly);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(current, daily, hourly);
+    }
+
+    @Override
+    public String toString() {
+        return "Current: " + current
+                + ", Days: " + (daily == null ? 0 : daily.size())
+                + ", Hours: " + (hourly == null ? 0 : hourly.size());
+    }
+}
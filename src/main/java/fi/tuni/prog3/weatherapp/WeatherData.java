@@ -1,5 +1,6 @@
 package fi.tuni.prog3.weatherapp;
 
+
 /**
  * A class for representing one set of weather data. Includes information about
  * weather conditions for a specific location. Contains methods to access and
@@ -202,89 +203,107 @@ public class WeatherData {
      */
     public boolean fetchData(DataFetcher dataFetcher, String locationName) {
 
-        String coord = dataFetcher.lookUpLocation(locationName);
-        if (coord != null) {
-            String[] coordArray = coord.split(",");
-            double lat = Double.parseDouble(coordArray[0]);
-            double lon = Double.parseDouble(coordArray[1]);
-            this.locationName = coordArray[2];
-
-            String weatherInfo = dataFetcher.getCurrentWeather(lat, lon);
-            if (weatherInfo != null) {
-                String[] weatherData = weatherInfo.split(",");
-                double temp = Double.parseDouble(weatherData[0]);
-                String desc = weatherData[1];
-                double precip = Double.parseDouble(weatherData[2]);
-                double windSp = Double.parseDouble(weatherData[3]);
-                double windDeg = Double.parseDouble(weatherData[4]);
-                int Id = Integer.parseInt(weatherData[5]);
-                String path = weatherData[6];
-
-                this.latitude = lat;
-                this.longitude = lon;
-                this.temperature = temp;
-                this.description = desc;
-                this.precipitation = precip;
-                this.windSpeed = windSp;
-                this.windDirection = windDeg;
-                this.weatherId = Id;
-
-                if (null != weatherId) {
-                    switch (weatherId) {
-                        case 801:
-                            this.iconPath = "/icons/cloudy.png";
-                            break;
-                        case 802:
-                            this.iconPath = "/icons/cloud.png";
-                            break;
-                        case 803:
-                            this.iconPath = "/icons/clouds.png";
-                            break;
-                        case 804:
-                            this.iconPath = "/icons/darkClouds.png";
-                            break;
-                        case 800:
-                            this.iconPath = "/icons/sun.png";
-                            break;
-                        case 600:
-                            this.iconPath = "/icons/snowflake.png";
-                            break;
-                        case 601:
-                            this.iconPath = "/icons/snow.png";
-                            break;
-                        case 602:
-                            this.iconPath = "/icons/heavySnow.png";
-                            break;
-                        case 615:
-                            this.iconPath = "/icons/rainAndSnow.png";
-                            break;
-                        case 616:
-                            this.iconPath = "/icons/rainAndSnow.png";
-                            break;
-                        case 502:
-                            this.iconPath = "/icons/heavyRain.png";
-                            break;
-                        case 503:
-                            this.iconPath = "/icons/heavyRain.png";
-                            break;
-                        case 521:
-                            this.iconPath = "/icons/showerRain.png";
-                            break;
-                        default:
-                            this.iconPath = path;
-                            break;
-                    }
-                }
-
-                if (windDirection != 0) {
-                    this.windIconPath = getWindDirectionPath(windDirection);
-                }
+        Location location = dataFetcher.lookUpLocation(locationName);
+        if (location != null) {
+            fetchData(dataFetcher, location.getLatitude(), location.getLongitude(), location.getName());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Fetches the current weather for already resolved coordinates, so that
+     * callers which have geocoded the location once do not have to look it up
+     * again.
+     *
+     * @param dataFetcher The DataFetcher object used to retrieve weather
+     * information
+     * @param lat The latitude of the location
+     * @param lon The longitude of the location
+     * @param locationName The resolved name of the location
+     * @return true, if the current weather was fetched, otherwise false
+     */
+    public boolean fetchData(DataFetcher dataFetcher, double lat, double lon, String locationName) {
+        this.locationName = locationName;
+        return applyCurrentWeather(dataFetcher.getCurrentWeather(lat, lon), lat, lon);
+    }
+
+    /**
+     * Sets the current weather from a response that has already been fetched.
+     *
+     * @param conditions The current weather as returned by DataFetcher, or
+     * null if it could not be fetched
+     * @param lat The latitude of the location
+     * @param lon The longitude of the location
+     * @return true, if the current weather was set, otherwise false
+     */
+    boolean applyCurrentWeather(CurrentConditions conditions, double lat, double lon) {
+        if (conditions != null) {
+            String path = conditions.getIconUrl();
+
+            this.latitude = lat;
+            this.longitude = lon;
+            this.temperature = conditions.getTemperature();
+            this.description = conditions.getDescription();
+            this.precipitation = conditions.getPrecipitation();
+            this.windSpeed = conditions.getWindSpeed();
+            this.windDirection = conditions.getWindDirection();
+            this.weatherId = conditions.getWeatherId();
+
+            if (null != weatherId) {
+                this.iconPath = getIconPath(weatherId, path);
+            }
+
+            if (windDirection != 0) {
+                this.windIconPath = getWindDirectionPath(windDirection);
             }
             return true;
         }
         return false;
     }
 
+    /**
+     * Retrieves the file path of the bundled weather icon for a weather
+     * condition id.
+     *
+     * @param weatherId The OpenWeatherMap weather condition id
+     * @param defaultPath The path used when there is no bundled icon for the
+     * condition
+     * @return The file path for the corresponding weather icon
+     */
+    static String getIconPath(int weatherId, String defaultPath) {
+        switch (weatherId) {
+            case 801:
+                return "/icons/cloudy.png";
+            case 802:
+                return "/icons/cloud.png";
+            case 803:
+                return "/icons/clouds.png";
+            case 804:
+                return "/icons/darkClouds.png";
+            case 800:
+                return "/icons/sun.png";
+            case 600:
+                return "/icons/snowflake.png";
+            case 601:
+                return "/icons/snow.png";
+            case 602:
+                return "/icons/heavySnow.png";
+            case 615:
+                return "/icons/rainAndSnow.png";
+            case 616:
+                return "/icons/rainAndSnow.png";
+            case 502:
+                return "/icons/heavyRain.png";
+            case 503:
+                return "/icons/heavyRain.png";
+            case 521:
+                return "/icons/showerRain.png";
+            default:
+                return defaultPath;
+        }
+    }
+
     /**
      * Retrieves the file path for the wind direction icon based on the provided
      * wind direction angle.
@@ -293,6 +312,17 @@ public class WeatherData {
      * @return The file path for the corresponding wind direction icon
      */
     public String getWindDirectionPath(Double direction) {
+        return windDirectionPath(direction);
+    }
+
+    /**
+     * Retrieves the file path for the wind direction icon based on the provided
+     * wind direction angle, for callers that have no WeatherData object.
+     *
+     * @param direction The wind direction angle in degrees
+     * @return The file path for the corresponding wind direction icon
+     */
+    static String windDirectionPath(double direction) {
         if (direction >= 337.5 || direction < 22.5) {
             return "/icons/north.png";
         } else if (direction >= 22.5 && direction < 67.5) {
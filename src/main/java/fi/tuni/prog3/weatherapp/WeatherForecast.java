@@ -1,6 +1,7 @@
 package fi.tuni.prog3.weatherapp;
 
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * A class for represeting forecasts of one location stored as an arraylist of
@@ -25,6 +26,17 @@ public class WeatherForecast {
         this.dataFetcher = new DataFetcher();
     }
 
+    /**
+     * Constructor that uses the given DataFetcher for the requests.
+     *
+     * @param dataFetcher The DataFetcher used to retrieve forecast information
+     */
+    public WeatherForecast(DataFetcher dataFetcher) {
+        this.dailyForecast = new ArrayList<>();
+        this.locationName = null;
+        this.dataFetcher = dataFetcher;
+    }
+
     /**
      * Retrieves the list of daily forecasts.
      *
@@ -46,41 +58,54 @@ public class WeatherForecast {
         this.locationName = locationName;
         this.dailyForecast.clear();
 
-        String coord = dataFetcher.lookUpLocation(locationName);
-        if (coord != null) {
-            String[] coordArray = coord.split(",");
-            double lat = Double.parseDouble(coordArray[0]);
-            double lon = Double.parseDouble(coordArray[1]);
-            String name = coordArray[2];
-
-            String forecastInfo = dataFetcher.getForecast(lat, lon);
-            if (forecastInfo != null) {
-                String[] dailyForecasts = forecastInfo.split("\n");
-                for (String df : dailyForecasts) {
-                    String[] forecastDetails = df.split(",");
-                    if (forecastDetails.length >= 4) {
-                        String date = forecastDetails[0].substring(6).trim();
-                        String iconURL = forecastDetails[1].split(": ")[1].trim();
-                        String minTemp = forecastDetails[2].substring(10).trim();
-                        String maxTemp = forecastDetails[3].substring(10).trim();
-                        
-                        System.out.println("WeatherForecast iconURL: " + iconURL);
+        Location location = dataFetcher.lookUpLocation(locationName);
+        if (location != null) {
+            fetchDailyData(location.getLatitude(), location.getLongitude(), location.getName());
+        } else {
+            return false;
+        }
+        return true;
+    }
 
-                        WeatherData weatherData = new WeatherData(name, lat, lon,
-                                0.0, "", 0.0, 0.0, 0.0, 0, "", "");
-                        weatherData.setDate(date);
-                        weatherData.setIconPath(iconURL);
-                        weatherData.setMinTemp(Double.parseDouble(minTemp));
-                        weatherData.setMaxTemp(Double.parseDouble(maxTemp));
+    /**
+     * Fetches the daily weather forecast for already resolved coordinates.
+     *
+     * @param lat The latitude of the location
+     * @param lon The longitude of the location
+     * @param name The resolved name of the location
+     * @return boolean value of whether the forecast was fetched or not.
+     */
+    public boolean fetchDailyData(double lat, double lon, String name) {
+        return applyDailyData(dataFetcher.getForecast(lat, lon), lat, lon, name);
+    }
 
-                        dailyForecast.add(weatherData);
-                    }
+    /**
+     * Sets the daily forecast from a response that has already been fetched.
+     *
+     * @param forecast The daily forecast as returned by DataFetcher, or null
+     * if it could not be fetched
+     * @param lat The latitude of the location
+     * @param lon The longitude of the location
+     * @param name The resolved name of the location
+     * @return boolean value of whether the forecast was set or not.
+     */
+    boolean applyDailyData(List<DailyForecastEntry> forecast, double lat, double lon, String name) {
+        this.locationName = name;
+        this.dailyForecast.clear();
 
-                }
-            } 
-        } else {
+        if (forecast == null) {
             return false;
         }
+        for (DailyForecastEntry entry : forecast) {
+            WeatherData weatherData = new WeatherData(name, lat, lon,
+                    0.0, "", 0.0, 0.0, 0.0, 0, "", "");
+            weatherData.setDate(dataFetcher.unixToString(entry.getTime()));
+            weatherData.setIconPath(entry.getIconUrl());
+            weatherData.setMinTemp(entry.getMinTemp());
+            weatherData.setMaxTemp(entry.getMaxTemp());
+
+            dailyForecast.add(weatherData);
+        }
         return true;
     }
 }
@@ -0,0 +1,131 @@
+package fi.tuni.prog3.weatherapp;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes the program state to a file in the background whenever it changes.
+ * The first change starts a short delay, and every change made during the
+ * delay is saved by the same write, so a burst of changes causes one write.
+ * The writes run on a single background thread, one at a time, and never on
+ * the thread that reported the change. Closing the persister writes the
+ * changes still waiting and stops its thread.
+ *
+ * @author Melina
+ */
+public class WriteBehindPersister implements AutoCloseable {
+
+    private static final Duration DEFAULT_DELAY = Duration.ofMillis(500);
+
+    private final iReadAndWriteToFile target;
+    private final String fileName;
+    private final Duration delay;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean pending = new AtomicBoolean();
+    private final LongAdder writes = new LongAdder();
+
+    /**
+     * Constructs a persister that writes half a second after the first
+     * change.
+     *
+     * @param target The object that writes the state.
+     * @param fileName The name of the file the state is written to.
+     */
+    public WriteBehindPersister(iReadAndWriteToFile target, String fileName) {
+        this(target, fileName, DEFAULT_DELAY);
+    }
+
+    /**
+     * Constructs a persister.
+     *
+     * @param target The object that writes the state.
+     * @param fileName The name of the file the state is written to.
+     * @param delay How long changes are collected before they are written.
+     */
+    public WriteBehindPersister(iReadAndWriteToFile target, String fileName, Duration delay) {
+        this.target = target;
+        this.fileName = fileName;
+        this.delay = delay;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Reports that the state has changed. The state is written after the
+     * delay, unless a write is already waiting, in which case that write also
+     * saves this change.
+     */
+    public void changed() {
+        if (pending.compareAndSet(false, true)) {
+            try {
+                executor.schedule(this::write, delay.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException ex) {
+                // Closed, nothing is written any more
+            }
+        }
+    }
+
+    /**
+     * Writes the state now and waits for the write to finish, e.g. when the
+     * program closes.
+     */
+    public void flush() {
+        try {
+            executor.submit(this::write).get();
+        } catch (RejectedExecutionException ex) {
+            // Closed, the last changes were written when closing
+        } catch (ExecutionException ex) {
+            Logger.getLogger(WriteBehindPersister.class.getName()).log(Level.WARNING, null, ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes the changes that are waiting to be written, if any, and stops
+     * the background thread. Changes reported after this are not written.
+     */
+    @Override
+    public void close() {
+        if (executor.isShutdown()) {
+            return;
+        }
+        if (pending.get()) {
+            flush();
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns the number of writes made.
+     *
+     * @return The number of writes.
+     */
+    public long getWrites() {
+        return writes.sum();
+    }
+
+    private void write() {
+        // Cleared before writing, so a change made during the write is
+        // written again
+        pending.set(false);
+        try {
+            target.writeToFile(fileName);
+            writes.increment();
+        } catch (Exception ex) {
+            Logger.getLogger(WriteBehindPersister.class.getName()).log(Level.WARNING,
+                    "Writing " + fileName + " failed", ex);
+        }
+    }
+}
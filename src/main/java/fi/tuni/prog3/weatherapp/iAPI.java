@@ -4,31 +4,35 @@
  */
 package fi.tuni.prog3.weatherapp;
 
+import java.util.List;
+
 /**
- * Interface for extracting data from the OpenWeatherMap API.
+ * Interface for extracting data from the OpenWeatherMap API. Locations are
+ * looked up through the lookUpLocation method of iGeocoder.
  */
-public interface iAPI {
-    
-    /**
-     * Returns coordinates for a location.
-     * @param loc Name of the location for which coordinates should be fetched.
-     * @return String.
-     */
-    public String lookUpLocation(String loc);
+public interface iAPI extends iGeocoder {
     
     /**
      * Returns the current weather for the given coordinates.
      * @param lat The latitude of the location.
      * @param lon The longitude of the location.
-     * @return String.
+     * @return CurrentConditions.
      */
-    public String getCurrentWeather(double lat, double lon);
+    public CurrentConditions getCurrentWeather(double lat, double lon);
 
     /**
      * Returns a forecast for the given coordinates.
      * @param lat The latitude of the location.
      * @param lon The longitude of the location.
-     * @return String.
+     * @return List of daily forecast entries.
+     */
+    public List<DailyForecastEntry> getForecast(double lat, double lon);
+
+    /**
+     * Returns an hourly forecast for the given coordinates.
+     * @param lat The latitude of the location.
+     * @param lon The longitude of the location.
+     * @return List of hourly forecast entries.
      */
-    public String getForecast(double lat, double lon);
+    public List<HourlyForecastEntry> getHourlyForecast(double lat, double lon);
 }
@@ -0,0 +1,98 @@
+package fi.tuni.prog3.weatherapp;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Non-blocking interface for extracting data from the OpenWeatherMap API.
+ * Every method returns immediately; the returned future completes when the
+ * response has arrived and has been decoded, or completes exceptionally if the
+ * request failed or timed out.
+ */
+public interface iAsyncAPI {
+
+    /**
+     * Returns coordinates for a location.
+     * @param loc Name of the location for which coordinates should be fetched.
+     * @return CompletableFuture completing with the location, or with null if
+     * the location was not found.
+     */
+    public CompletableFuture<Location> lookUpLocationAsync(String loc);
+
+    /**
+     * Returns every location matching a name, e.g. for suggestions while the
+     * user types. Cancelling the returned future cancels the request.
+     * @param loc Name of the location for which coordinates should be fetched.
+     * @return CompletableFuture completing with the matching locations, best
+     * match first. The default returns the result of lookUpLocationAsync.
+     */
+    public default CompletableFuture<List<Location>> lookUpLocationsAsync(String loc) {
+        return lookUpLocationAsync(loc).thenApply(location -> location == null
+                ? List.of() : List.of(location));
+    }
+
+    /**
+     * Returns the current weather for the given coordinates.
+     * @param lat The latitude of the location.
+     * @param lon The longitude of the location.
+     * @return CompletableFuture completing with the current weather.
+     */
+    public CompletableFuture<CurrentConditions> getCurrentWeatherAsync(double lat, double lon);
+
+    /**
+     * Returns the current weather of many cities.
+     * @param cityIds The OpenWeatherMap ids of the cities.
+     * @return CompletableFuture completing with the current weather of the
+     * cities by city id. Cities that were not found are left out.
+     */
+    public CompletableFuture<Map<Long, CurrentConditions>> getCurrentWeatherAsync(Collection<Long> cityIds);
+
+    /**
+     * Returns a daily forecast for the given coordinates.
+     * @param lat The latitude of the location.
+     * @param lon The longitude of the location.
+     * @return CompletableFuture completing with the daily forecast.
+     */
+    public CompletableFuture<List<DailyForecastEntry>> getForecastAsync(double lat, double lon);
+
+    /**
+     * Returns an hourly forecast for the given coordinates.
+     * @param lat The latitude of the location.
+     * @param lon The longitude of the location.
+     * @return CompletableFuture completing with the hourly forecast.
+     */
+    public CompletableFuture<List<HourlyForecastEntry>> getHourlyForecastAsync(double lat, double lon);
+
+    /**
+     * Returns the current weather and the daily and hourly forecasts for the
+     * given coordinates. By default the three are requested separately and
+     * in parallel; implementations that can fetch them together override
+     * this.
+     * @param lat The latitude of the location.
+     * @param lon The longitude of the location.
+     * @return CompletableFuture completing with the weather. A part that
+     * could not be fetched is null in the bundle.
+     */
+    public default CompletableFuture<WeatherBundle> getWeatherAsync(double lat, double lon) {
+        CompletableFuture<CurrentConditions> current = getCurrentWeatherAsync(lat, lon)
+                .exceptionally(iAsyncAPI::failedPart);
+        CompletableFuture<List<DailyForecastEntry>> daily = getForecastAsync(lat, lon)
+                .exceptionally(iAsyncAPI::failedPart);
+        CompletableFuture<List<HourlyForecastEntry>> hourly = getHourlyForecastAsync(lat, lon)
+                .exceptionally(iAsyncAPI::failedPart);
+        return CompletableFuture.allOf(current, daily, hourly).thenApply(done
+                -> new WeatherBundle(current.join(), daily.join(), hourly.join()));
+    }
+
+    /**
+     * Logs a part of getWeatherAsync that failed and leaves it empty.
+     */
+    private static <T> T failedPart(Throwable ex) {
+        Logger.getLogger(iAsyncAPI.class.getName()).log(Level.WARNING, null, ex);
+        return null;
+    }
+}
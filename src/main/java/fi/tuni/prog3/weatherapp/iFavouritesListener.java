@@ -0,0 +1,22 @@
+package fi.tuni.prog3.weatherapp;
+
+/**
+ * Interface for objects that follow the changes of the favourite locations
+ * kept by FavouritesManager. The methods are called one at a time, in the
+ * order the favourites changed, on the thread that made the change or on
+ * another thread changing the favourites at the same time.
+ */
+public interface iFavouritesListener {
+
+    /**
+     * Called after a location was added to the favourites.
+     * @param location the added location.
+     */
+    public void favouriteAdded(String location);
+
+    /**
+     * Called after a location was removed from the favourites.
+     * @param location the removed location.
+     */
+    public void favouriteRemoved(String location);
+}
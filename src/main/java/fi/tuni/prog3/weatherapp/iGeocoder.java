@@ -0,0 +1,14 @@
+package fi.tuni.prog3.weatherapp;
+
+/**
+ * Interface for resolving location names into coordinates.
+ */
+public interface iGeocoder {
+
+    /**
+     * Returns coordinates for a location.
+     * @param loc Name of the location for which coordinates should be fetched.
+     * @return Location, or null if the location was not found.
+     */
+    public Location lookUpLocation(String loc);
+}
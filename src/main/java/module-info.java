@@ -2,6 +2,8 @@ module fi.tuni.progthree.weatherapp {
     requires javafx.controls;
     
     exports fi.tuni.prog3.weatherapp;
+    opens fi.tuni.prog3.weatherapp to com.google.gson;
     requires com.google.gson;
     requires java.logging;
+    requires java.net.http;
 }
@@ -0,0 +1,104 @@
+
+package fi.tuni.prog3.weatherapp;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Melina
+ */
+public class CityIndexTest {
+
+    static final Path CITIES = Paths.get("src/main/cities/cities.tsv");
+
+    @TempDir
+    Path tempDir;
+
+    private CityIndex buildIndex() throws IOException {
+        Path file = tempDir.resolve("cities.idx");
+        try (BufferedReader in = Files.newBufferedReader(CITIES, StandardCharsets.UTF_8);
+                OutputStream out = Files.newOutputStream(file)) {
+            CityIndexBuilder.build(in, out);
+        }
+        return CityIndex.map(file);
+    }
+
+    @Test
+    public void testLookUpLocation() throws IOException {
+        CityIndex index = buildIndex();
+
+        Location tampere = index.lookUpLocation("Tampere");
+        assertEquals("Tampere", tampere.getName());
+        assertEquals(61.49911, tampere.getLatitude());
+        assertEquals(23.78712, tampere.getLongitude());
+        assertEquals("Jyväskylä", index.lookUpLocation(" jyvaskyla ").getName());
+        assertEquals("New York", index.lookUpLocation("new  york").getName());
+        assertNull(index.lookUpLocation("Atlantis"));
+        assertNull(index.lookUpLocation("Tamper"));
+        assertNull(index.lookUpLocation(""));
+    }
+
+    @Test
+    public void testSameNameIsResolvedByPopulationAndCountry() throws IOException {
+        CityIndex index = buildIndex();
+
+        assertEquals(45.52345, index.lookUpLocation("Portland").getLatitude());
+        assertEquals(51.50853, index.lookUpLocation("London").getLatitude());
+        assertEquals(42.98339, index.lookUpLocation("London, CA").getLatitude());
+        assertEquals(60.10276, index.lookUpLocation("Mariehamn,AX").getLatitude());
+        assertNull(index.lookUpLocation("Tampere, SE"));
+    }
+
+    @Test
+    public void testSuggest() throws IOException {
+        CityIndex index = buildIndex();
+
+        assertEquals(List.of("Lagos", "London", "Lima"), index.suggest("l", 3));
+        assertEquals(List.of("Portland", "Pori", "Portland", "Porvoo"), index.suggest("Por", 10));
+        assertEquals(List.of("Helsinki"), index.suggest("HELSINKI", 10));
+        assertEquals(List.of(), index.suggest("Helsinkii", 10));
+    }
+
+    @Test
+    public void testBundledIndex() {
+        CityIndex index = CityIndex.getDefault();
+        assertTrue(index.size() > 100);
+        assertEquals("Helsinki", index.lookUpLocation("helsinki").getName());
+    }
+
+    @Test
+    public void testDataFetcherUsesLocalGeocoder() throws Exception {
+        DataFetcher fetcher = new DataFetcher(Duration.ofSeconds(1), new GeocodeCache(),
+                new ResponseCache(), buildIndex());
+
+        assertEquals(65.01236, fetcher.lookUpLocationAsync("Oulu").getNow(null).getLatitude());
+    }
+
+    @Test
+    public void testRejectsMalformedLists() {
+        BufferedReader in = new BufferedReader(new StringReader("# header\nTampere\tFI\tmany\t61.5\t23.8\n"));
+        IOException ex = assertThrows(IOException.class,
+                () -> CityIndexBuilder.build(in, OutputStream.nullOutputStream()));
+        assertTrue(ex.getMessage().contains("line 2"));
+    }
+
+    @Test
+    public void testRejectsOtherFiles() throws IOException {
+        Path file = tempDir.resolve("not.idx");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IOException.class, () -> CityIndex.map(file));
+    }
+
+}
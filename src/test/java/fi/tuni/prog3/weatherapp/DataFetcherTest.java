@@ -1,6 +1,7 @@
 
 package fi.tuni.prog3.weatherapp;
 
+import java.util.List;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,28 +26,28 @@ public class DataFetcherTest {
  
     @Test
     public void testLookUpLocation() {
-        String result = df.lookUpLocation("Tampere");
-        assertEquals(LAT_TAMPERE+","+LON_TAMPERE+","+"Tampere",result);
+        Location result = df.lookUpLocation("Tampere");
+        assertEquals(new Location("Tampere", LAT_TAMPERE, LON_TAMPERE), result);
         System.out.println("Coords: " + result);
     }
     
     @Test
     public void testGetCurrentWeather() {
-        String result = df.getCurrentWeather(LAT_TAMPERE, LON_TAMPERE);
+        CurrentConditions result = df.getCurrentWeather(LAT_TAMPERE, LON_TAMPERE);
         assertNotNull(result);
         System.out.println("Current Weather: " + result);
     }
     
     @Test
     public void testGetForecast() {
-        String result = df.getForecast(LAT_TAMPERE, LON_TAMPERE);
+        List<DailyForecastEntry> result = df.getForecast(LAT_TAMPERE, LON_TAMPERE);
         assertNotNull(result);
         System.out.println("Forecast: " + result);
     }
     
     @Test
     public void testGetHourlyForecast() {
-        String result = df.getHourlyForecast(LAT_TAMPERE, LON_TAMPERE);
+        List<HourlyForecastEntry> result = df.getHourlyForecast(LAT_TAMPERE, LON_TAMPERE);
         assertNotNull(result);
         System.out.println("Hourly Forecast: " + result);
     }
@@ -2,6 +2,7 @@
 package fi.tuni.prog3.weatherapp;
 
 import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -63,5 +64,79 @@ public class FavouritesManagerTest {
         assertTrue(fm.isFavourite("Kuopio"));
         assertFalse(fm.isFavourite("Tampere"));
     }
+
+    @Test
+    public void testGetFavouritesKeepsOrder() {
+        fm.addFavourite("Vaasa");
+        fm.addFavourite("Kuopio");
+        fm.addFavourite("Vaasa");
+        fm.addFavourite("Espoo");
+        fm.removeFavourite("Kuopio");
+
+        assertEquals(List.of("Vaasa", "Espoo"), fm.getFavourites());
+    }
+
+    @Test
+    public void testListenerGetsChanges() {
+        List<String> events = new ArrayList<>();
+        fm.addListener(new iFavouritesListener() {
+            @Override
+            public void favouriteAdded(String location) {
+                events.add("+" + location);
+            }
+
+            @Override
+            public void favouriteRemoved(String location) {
+                events.add("-" + location);
+            }
+        });
+
+        fm.addFavourite("Oulu");
+        fm.addFavourite("Oulu");
+        fm.removeFavourite("Lahti");
+        fm.setFavouritesFromJSON("[\"Oulu\",\"Pori\"]");
+        fm.setFavouritesFromJSON("[\"Pori\",\"Kotka\"]");
+        fm.clearFavourites();
+
+        assertEquals(List.of("+Oulu", "+Pori", "-Oulu", "+Kotka", "-Pori", "-Kotka"), events);
+        assertTrue(fm.isEmpty());
+    }
+
+    @Test
+    public void testConcurrentChangesArriveInOrder() throws InterruptedException {
+        List<String> events = new ArrayList<>();
+        fm.addListener(new iFavouritesListener() {
+            @Override
+            public void favouriteAdded(String location) {
+                events.add("+");
+            }
+
+            @Override
+            public void favouriteRemoved(String location) {
+                events.add("-");
+            }
+        });
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 2000; j++) {
+                    if (!fm.addFavourite("Oulu")) {
+                        fm.removeFavourite("Oulu");
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(i % 2 == 0 ? "+" : "-", events.get(i));
+        }
+        assertEquals(events.size() % 2 == 1, fm.isFavourite("Oulu"));
+    }
     
 }
@@ -0,0 +1,150 @@
+
+package fi.tuni.prog3.weatherapp;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Melina
+ */
+public class FavouritesRefresherTest {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger lookUps = new AtomicInteger();
+    private final List<Collection<Long>> groups = new ArrayList<>();
+
+    private static final long BROKEN_CITY = 1023;
+
+    /**
+     * Finds every location except Atlantis and answers after a short delay.
+     * "Slow" never answers, "Broken" fails and "Emptiness" answers without
+     * current weather. The city id of a location is
+     * the length of its name. A group containing the city BROKEN_CITY fails.
+     */
+    private final iAsyncAPI api = new iAsyncAPI() {
+        @Override
+        public CompletableFuture<Location> lookUpLocationAsync(String loc) {
+            lookUps.incrementAndGet();
+            if (loc.equals("Atlantis")) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return CompletableFuture.completedFuture(new Location(loc, loc.length(), 0.0));
+        }
+
+        @Override
+        public CompletableFuture<CurrentConditions> getCurrentWeatherAsync(double lat, double lon) {
+            if (lat == "Slow".length()) {
+                return new CompletableFuture<>();
+            }
+            if (lat == "Broken".length()) {
+                return CompletableFuture.failedFuture(new IOException("HTTP 500"));
+            }
+            if (lat == "Emptiness".length()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return CompletableFuture.supplyAsync(() -> {
+                inFlight.decrementAndGet();
+                return new CurrentConditions(lat, "clear sky", 0.0, 1.0, 90.0, 800, "01d", (long) lat);
+            }, CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS));
+        }
+
+        @Override
+        public CompletableFuture<Map<Long, CurrentConditions>> getCurrentWeatherAsync(Collection<Long> cityIds) {
+            groups.add(cityIds);
+            if (cityIds.contains(BROKEN_CITY)) {
+                return CompletableFuture.failedFuture(new IOException("HTTP 500"));
+            }
+            Map<Long, CurrentConditions> result = new HashMap<>();
+            for (long id : cityIds) {
+                result.put(id, new CurrentConditions(id, "few clouds", 0.0, 1.0, 90.0, 801, "02d", id));
+            }
+            return CompletableFuture.completedFuture(result);
+        }
+
+        @Override
+        public CompletableFuture<List<DailyForecastEntry>> getForecastAsync(double lat, double lon) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<List<HourlyForecastEntry>> getHourlyForecastAsync(double lat, double lon) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    @Test
+    public void testPartialResults() {
+        FavouritesRefresher refresher = new FavouritesRefresher(api, new GeocodeCache(), 4, Duration.ofMillis(200));
+
+        Map<String, CurrentConditions> result = refresher.refreshAll(
+                List.of("Tampere", "Slow", "Atlantis", "Broken", "Emptiness", "Turku")).join();
+
+        assertEquals(List.of("Tampere", "Turku"), new ArrayList<>(result.keySet()));
+        assertEquals(7.0, result.get("Tampere").getTemperature());
+    }
+
+    @Test
+    public void testConcurrencyIsBounded() {
+        FavouritesRefresher refresher = new FavouritesRefresher(api, new GeocodeCache(), 3, Duration.ofSeconds(5));
+        List<String> locations = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            locations.add("Location " + i);
+        }
+
+        Map<String, CurrentConditions> result = refresher.refreshAll(locations).join();
+
+        assertEquals(30, result.size());
+        assertTrue(maxInFlight.get() <= 3);
+    }
+
+    @Test
+    public void testKnownCitiesAreGrouped() {
+        FavouritesRefresher refresher = new FavouritesRefresher(api, new GeocodeCache(), 4, Duration.ofSeconds(5));
+        List<String> locations = List.of("Tampere", "Turku", "Atlantis");
+
+        refresher.refreshAll(locations).join();
+        assertEquals(3, lookUps.get());
+        assertTrue(groups.isEmpty());
+
+        Map<String, CurrentConditions> result = refresher.refreshAll(locations).join();
+        assertEquals(4, lookUps.get());
+        assertEquals(1, groups.size());
+        assertEquals(List.of("Tampere", "Turku"), new ArrayList<>(result.keySet()));
+        assertEquals("few clouds", result.get("Turku").getDescription());
+    }
+
+    @Test
+    public void testFailedGroupDropsOnlyItsCities() {
+        GeocodeCache cache = new GeocodeCache();
+        List<String> locations = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            String name = "City " + i;
+            cache.put(name, new Location(name, i, 0.0).withCityId(1000 + i));
+            locations.add(name);
+        }
+        FavouritesRefresher refresher = new FavouritesRefresher(api, cache, 4, Duration.ofSeconds(5));
+
+        Map<String, CurrentConditions> result = refresher.refreshAll(locations).join();
+
+        assertEquals(2, groups.size());
+        assertEquals(20, groups.get(0).size());
+        assertEquals(20, result.size());
+        assertTrue(result.containsKey("City 19"));
+        assertFalse(result.containsKey("City 20"));
+        assertEquals(0, lookUps.get());
+    }
+
+}
@@ -0,0 +1,121 @@
+
+package fi.tuni.prog3.weatherapp;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Melina
+ */
+public class ForecastSeriesTest {
+
+    private static final long START = 1700481600L; // 2023-11-20 12:00 UTC
+
+    private static ForecastSeries hours() {
+        List<HourlyForecastEntry> entries = new ArrayList<>();
+        entries.add(new HourlyForecastEntry(START, "01d", 2.5, 3.0, 90, 0.0));
+        entries.add(new HourlyForecastEntry(START + 3600, "10d", -1.5, 6.5, 180, 1.25));
+        entries.add(new HourlyForecastEntry(START + 7200, "13n", 0.5, 4.0, 270, 0.5));
+        entries.add(new HourlyForecastEntry(START + 10800, null, 4.5, 2.0, 0, 0.0));
+        return ForecastSeries.of(entries);
+    }
+
+    @Test
+    public void testIndexedAccess() {
+        ForecastSeries series = hours();
+
+        assertEquals(4, series.size());
+        assertEquals(START + 3600, series.getTime(1));
+        assertEquals(-1.5, series.getTemperature(1));
+        assertEquals(6.5, series.getWindSpeed(1));
+        assertEquals(180, series.getWindDirection(1));
+        assertEquals(1.25, series.getPrecipitation(1));
+        assertEquals("10d", series.getIcon(1));
+        assertEquals("13n", series.getIcon(2));
+        assertEquals("", series.getIcon(3));
+        assertEquals(ForecastSeries.NO_CONDITION, series.getCondition(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> series.getTime(4));
+        assertThrows(IndexOutOfBoundsException.class, () -> series.getTime(-1));
+    }
+
+    @Test
+    public void testRanges() {
+        ForecastSeries series = hours();
+
+        ForecastSeries middle = series.range(1, 3);
+        assertEquals(2, middle.size());
+        assertEquals(START + 3600, middle.getTime(0));
+        assertEquals("13n", middle.getIcon(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> middle.getTime(2));
+        assertEquals(1, middle.range(1, 2).size());
+        assertEquals(0.5, middle.range(1, 2).getTemperature(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> series.range(2, 5));
+
+        assertEquals(1, series.indexOf(START + 3600));
+        assertEquals(2, series.indexOf(START + 3601));
+        assertEquals(0, series.indexOf(0));
+        assertEquals(4, series.indexOf(START + 86400));
+        assertEquals(1, middle.indexOf(START + 7200));
+        assertEquals(0, middle.indexOf(START));
+
+        ForecastSeries interval = series.between(START + 1800, START + 7201);
+        assertEquals(2, interval.size());
+        assertEquals(START + 3600, interval.getTime(0));
+        assertTrue(series.between(START + 86400, START + 90000).isEmpty());
+    }
+
+    @Test
+    public void testAggregations() {
+        ForecastSeries series = hours();
+
+        assertEquals(-1.5, series.minTemperature());
+        assertEquals(4.5, series.maxTemperature());
+        assertEquals(1.5, series.meanTemperature());
+        assertEquals(1.75, series.totalPrecipitation());
+        assertEquals(1.25, series.maxPrecipitation());
+        assertEquals(6.5, series.maxWindSpeed());
+        assertEquals(0.5, series.range(2, 4).minTemperature());
+        assertEquals(0.0, series.range(2, 2).totalPrecipitation());
+        assertTrue(Double.isNaN(ForecastSeries.EMPTY.minTemperature()));
+    }
+
+    @Test
+    public void testConditionCodes() {
+        assertEquals("01d", ForecastSeries.iconCode(ForecastSeries.conditionCode("01d")));
+        assertEquals("50n", ForecastSeries.iconCode(ForecastSeries.conditionCode("50n")));
+        assertEquals(ForecastSeries.NO_CONDITION, ForecastSeries.conditionCode("1d"));
+        assertEquals(ForecastSeries.NO_CONDITION, ForecastSeries.conditionCode("10x"));
+    }
+
+    @Test
+    public void testHourlyForecastAdaptsToWeatherData() throws IOException {
+        List<HourlyForecastEntry> entries = ResponseDecoder.decodeHourlyForecast(
+                ResponseDecoderTest.payload("hourly"));
+        HourlyForecast hourly = new HourlyForecast(new DataFetcher());
+        assertTrue(hourly.applyHourlyData(entries));
+
+        ForecastSeries series = hourly.getHourlySeries();
+        List<WeatherData> hours = hourly.getHourlyForecast();
+        assertEquals(96, series.size());
+        assertEquals(96, hours.size());
+        for (int i = 0; i < entries.size(); i++) {
+            HourlyForecastEntry entry = entries.get(i);
+            assertEquals(entry.getTime(), series.getTime(i));
+            assertEquals(entry.getIcon(), series.getIcon(i));
+            assertEquals(entry.getIconUrl(), hours.get(i).getIconPath());
+            assertEquals((float) entry.getTemperature(), series.getTemperature(i));
+            assertEquals(entry.getTemperature(), hours.get(i).getTemperature(), 1e-5);
+            assertEquals(entry.getPrecipitation(), hours.get(i).getPrecipitation(), 1e-5);
+            assertTrue(series.sameHour(i, ForecastSeries.of(entries), i));
+        }
+        assertFalse(series.sameHour(0, series, 1));
+
+        assertFalse(hourly.applyHourlyData(null));
+        assertTrue(hourly.getHourlySeries().isEmpty());
+    }
+
+}
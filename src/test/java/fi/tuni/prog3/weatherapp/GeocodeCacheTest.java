@@ -0,0 +1,103 @@
+
+package fi.tuni.prog3.weatherapp;
+
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Melina
+ */
+public class GeocodeCacheTest {
+
+    static final Location TAMPERE = new Location("Tampere", 61.4980214, 23.7603118);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testNormalise() {
+        assertEquals("tampere", GeocodeCache.normalise("Tampere"));
+        assertEquals("tampere", GeocodeCache.normalise("tampere "));
+        assertEquals("tampere,fi", GeocodeCache.normalise(" Tampere , FI"));
+        assertEquals("jyvaskyla", GeocodeCache.normalise("Jyväskylä"));
+        assertEquals("new york", GeocodeCache.normalise("New   York"));
+    }
+
+    @Test
+    public void testPutAndGet() {
+        GeocodeCache cache = new GeocodeCache();
+        assertNull(cache.get("Tampere"));
+
+        cache.put("Tampere,FI", TAMPERE);
+
+        assertEquals(TAMPERE, cache.get("tampere, fi"));
+        assertEquals(TAMPERE, cache.get("TAMPERE "));
+    }
+
+    @Test
+    public void testCityIdIsRemembered() {
+        GeocodeCache cache = new GeocodeCache();
+        cache.put("tampere,fi", TAMPERE);
+        cache.put("tampere,fi", TAMPERE.withCityId(634963));
+
+        assertEquals(634963, cache.get("Tampere, FI").getCityId());
+        assertEquals(634963, cache.get("Tampere").getCityId());
+    }
+
+    @Test
+    public void testMissingExpires() throws InterruptedException {
+        GeocodeCache cache = new GeocodeCache(null, 50);
+        cache.putMissing("Atlantis");
+
+        assertTrue(cache.isKnownMissing("atlantis"));
+        Thread.sleep(100);
+        assertFalse(cache.isKnownMissing("atlantis"));
+    }
+
+    @Test
+    public void testBurstIsWrittenOnce() throws InterruptedException {
+        Path file = tempDir.resolve("geocodeCache.json");
+        try (GeocodeCache cache = new GeocodeCache(file)) {
+            for (int i = 0; i < 20; i++) {
+                cache.put("Place " + i, new Location("Place " + i, i, i));
+            }
+            assertFalse(file.toFile().exists());
+
+            Thread.sleep(1000);
+            try (GeocodeCache reloaded = new GeocodeCache(file)) {
+                assertEquals(20, reloaded.size());
+            }
+        }
+    }
+
+    @Test
+    public void testSurvivesRestart() {
+        Path file = tempDir.resolve("geocodeCache.json");
+        try (GeocodeCache cache = new GeocodeCache(file)) {
+            cache.put("Tampere", TAMPERE);
+            cache.flush();
+        }
+
+        try (GeocodeCache reloaded = new GeocodeCache(file)) {
+            assertEquals(TAMPERE, reloaded.get("Tampere"));
+        }
+    }
+
+    @Test
+    public void testCloseWritesWaitingLocations() {
+        Path file = tempDir.resolve("geocodeCache.json");
+        GeocodeCache cache = new GeocodeCache(file);
+        cache.put("Tampere", TAMPERE);
+        cache.close();
+
+        try (GeocodeCache reloaded = new GeocodeCache(file)) {
+            assertEquals(TAMPERE, reloaded.get("Tampere"));
+        }
+        cache.put("Oulu", new Location("Oulu", 65.0, 25.5));
+        assertNotNull(cache.get("Oulu"));
+    }
+
+}
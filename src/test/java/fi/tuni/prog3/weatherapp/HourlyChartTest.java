@@ -0,0 +1,48 @@
+
+package fi.tuni.prog3.weatherapp;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Melina
+ */
+public class HourlyChartTest {
+
+    private static ForecastSeries hours(int count) {
+        List<HourlyForecastEntry> hours = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            hours.add(new HourlyForecastEntry(1700481600L + i * 3600L, "10d", Math.sin(i / 4.0) * 5,
+                    4, i * 15, i % 5 == 0 ? 1.2 : 0));
+        }
+        return ForecastSeries.of(hours);
+    }
+
+    @Test
+    public void testTemperatureY() {
+        assertEquals(100, HourlyChart.temperatureY(-5, -5, 5, 0, 100));
+        assertEquals(0, HourlyChart.temperatureY(5, -5, 5, 0, 100));
+        assertEquals(50, HourlyChart.temperatureY(0, -5, 5, 0, 100));
+        assertEquals(50, HourlyChart.temperatureY(3, 3, 3, 0, 100));
+    }
+
+    @Test
+    public void testSetForecast() {
+        HourlyChart chart = new HourlyChart(200);
+
+        chart.setSeries(hours(96));
+        assertEquals(96, chart.getHourCount());
+        assertEquals(96 * HourlyChart.HOUR_WIDTH, chart.getWidth());
+
+        chart.setSeries(hours(12));
+        assertEquals(12, chart.getHourCount());
+        assertEquals(12 * HourlyChart.HOUR_WIDTH, chart.getWidth());
+
+        chart.setSeries(ForecastSeries.EMPTY);
+        assertEquals(0, chart.getHourCount());
+    }
+
+}
@@ -0,0 +1,77 @@
+
+package fi.tuni.prog3.weatherapp;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Melina
+ */
+public class IconDownloaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path remote;
+    private Path cache;
+    private IconDownloader downloader;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        remote = Files.createDirectories(tempDir.resolve("remote"));
+        cache = tempDir.resolve("cache");
+        Files.write(remote.resolve("09d@2x.png"), new byte[]{9, 9});
+        Files.write(remote.resolve("50n@2x.png"), new byte[]{5, 0});
+        downloader = new IconDownloader(cache, remote.toUri().toString(), 2);
+    }
+
+    @Test
+    public void testConcurrentFetchesDownloadOnce() throws IOException {
+        List<CompletableFuture<Path>> fetches = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            fetches.add(downloader.fetch("09d@2x.png"));
+        }
+        for (CompletableFuture<Path> fetch : fetches) {
+            assertEquals(cache.resolve("09d@2x.png"), fetch.join());
+        }
+        assertArrayEquals(new byte[]{9, 9}, Files.readAllBytes(cache.resolve("09d@2x.png")));
+        assertEquals(1, downloader.getDownloads());
+    }
+
+    @Test
+    public void testFailedDownloadLeavesNoFile() throws IOException {
+        CompletableFuture<Path> fetch = downloader.fetch("11d@2x.png");
+
+        assertThrows(CompletionException.class, fetch::join);
+        try (Stream<Path> files = Files.list(cache)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void testPrewarm() {
+        downloader.prewarm(List.of("09d@2x.png", "11d@2x.png", "50n@2x.png")).join();
+
+        assertTrue(Files.exists(cache.resolve("09d@2x.png")));
+        assertTrue(Files.exists(cache.resolve("50n@2x.png")));
+        assertEquals(2, downloader.getDownloads());
+    }
+
+    @Test
+    public void testAllIcons() {
+        assertEquals(18, IconDownloader.ALL_ICONS.size());
+        assertTrue(IconDownloader.ALL_ICONS.contains("50n@2x.png"));
+    }
+
+}
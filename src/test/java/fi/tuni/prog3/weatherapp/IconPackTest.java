@@ -0,0 +1,73 @@
+
+package fi.tuni.prog3.weatherapp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Melina
+ */
+public class IconPackTest {
+
+    static final Path ICONS = Paths.get("src/main/icons");
+
+    @TempDir
+    Path tempDir;
+
+    private Path buildPack() throws IOException {
+        Path file = tempDir.resolve("test.pack");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            IconPackBuilder.build(ICONS, out);
+        }
+        return file;
+    }
+
+    @Test
+    public void testMappedPackServesIcons() throws IOException {
+        IconPack pack = IconPack.map(buildPack());
+
+        assertEquals(12, pack.size());
+        assertTrue(pack.contains("10d@2x.png"));
+        try (InputStream in = pack.open("10d@2x.png")) {
+            assertArrayEquals(Files.readAllBytes(ICONS.resolve("10d@2x.png")), in.readAllBytes());
+        }
+        assertNull(pack.open("99d@2x.png"));
+    }
+
+    @Test
+    public void testReadPackServesIcons() throws IOException {
+        IconPack pack;
+        try (InputStream in = Files.newInputStream(buildPack())) {
+            pack = IconPack.read(in);
+        }
+
+        try (InputStream in = pack.open("01n@2x.png")) {
+            byte[] expected = Files.readAllBytes(ICONS.resolve("01n@2x.png"));
+            assertEquals(expected.length, in.available());
+            assertEquals(expected[0] & 0xFF, in.read());
+        }
+    }
+
+    @Test
+    public void testBundledPack() {
+        IconPack pack = IconPack.getDefault();
+        assertTrue(pack.contains("01d@2x.png"));
+        assertTrue(pack.contains("13n@2x.png"));
+    }
+
+    @Test
+    public void testRejectsOtherFiles() throws IOException {
+        Path file = tempDir.resolve("not.pack");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IOException.class, () -> IconPack.map(file));
+    }
+
+}
@@ -0,0 +1,77 @@
+
+package fi.tuni.prog3.weatherapp;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Melina
+ */
+public class ImageCacheTest {
+
+    private final List<String> decoded = new ArrayList<>();
+    private final ImageCache cache = new ImageCache(2, (in, size) -> {
+        try {
+            decoded.add(new String(in.readAllBytes(), StandardCharsets.UTF_8) + "#" + size);
+        } catch (IOException ex) {
+            fail(ex);
+        }
+        return new WritableImage(Math.max(size, 1), Math.max(size, 1));
+    });
+
+    static InputStream open(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testDecodedOnce() {
+        Image first = cache.get("10d@2x.png", 64, id -> open("cache/" + id));
+        Image second = cache.get("10d@2x.png", 64, id -> open("cache/" + id));
+
+        assertSame(first, second);
+        assertEquals(List.of("cache/10d@2x.png#64"), decoded);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testKeyedOnSize() {
+        Image small = cache.get("/icons/north.png", 24, ImageCacheTest::open);
+        Image large = cache.get("/icons/north.png", 40, ImageCacheTest::open);
+
+        assertNotSame(small, large);
+        assertEquals(40.0, large.getWidth());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsDropped() {
+        cache.get("/icons/north.png", 24, ImageCacheTest::open);
+        cache.get("/icons/south.png", 24, ImageCacheTest::open);
+        cache.get("/icons/north.png", 24, ImageCacheTest::open);
+        cache.get("/icons/east.png", 24, ImageCacheTest::open);
+        cache.get("/icons/north.png", 24, ImageCacheTest::open);
+        cache.get("/icons/south.png", 24, ImageCacheTest::open);
+
+        assertEquals(2, cache.size());
+        assertEquals(4, cache.getMisses());
+        assertEquals(List.of("/icons/north.png#24", "/icons/south.png#24",
+                "/icons/east.png#24", "/icons/south.png#24"), decoded);
+    }
+
+    @Test
+    public void testMissingIconIsNotCached() {
+        assertNull(cache.get("99x@2x.png", 64, id -> null));
+        assertEquals(0, cache.size());
+    }
+
+}
@@ -0,0 +1,84 @@
+
+package fi.tuni.prog3.weatherapp;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Melina
+ */
+public class InFlightRequestsTest {
+
+    private InFlightRequests requests;
+    private AtomicInteger started;
+
+    public InFlightRequestsTest() {
+        this.requests = new InFlightRequests();
+        this.started = new AtomicInteger();
+    }
+
+    @Test
+    public void testConcurrentCallersShareOneRequest() {
+        CompletableFuture<String> response = new CompletableFuture<>();
+
+        CompletableFuture<String> first = requests.join("CURRENT:6150:2376", () -> {
+            started.incrementAndGet();
+            return response;
+        });
+        CompletableFuture<String> second = requests.join("CURRENT:6150:2376", () -> {
+            started.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+
+        assertEquals(1, started.get());
+        assertEquals(1, requests.size());
+        response.complete("current");
+        assertEquals("current", first.join());
+        assertEquals("current", second.join());
+        assertEquals(1, requests.getCoalesced());
+        assertEquals(0, requests.size());
+    }
+
+    @Test
+    public void testCompletedRequestIsNotReused() {
+        requests.join("DAILY:6150:2376", () -> {
+            started.incrementAndGet();
+            return CompletableFuture.completedFuture("daily");
+        });
+        requests.join("DAILY:6150:2376", () -> {
+            started.incrementAndGet();
+            return CompletableFuture.completedFuture("daily");
+        });
+
+        assertEquals(2, started.get());
+    }
+
+    @Test
+    public void testFailureIsShared() {
+        CompletableFuture<String> response = new CompletableFuture<>();
+        CompletableFuture<String> first = requests.join("HOURLY:6150:2376", () -> response);
+        CompletableFuture<String> second = requests.join("HOURLY:6150:2376", () -> response);
+
+        response.completeExceptionally(new IOException("HTTP 500"));
+        assertThrows(CompletionException.class, () -> first.join());
+        assertThrows(CompletionException.class, () -> second.join());
+        assertEquals(0, requests.size());
+    }
+
+    @Test
+    public void testCancellingOneCallerKeepsTheRequest() {
+        CompletableFuture<String> response = new CompletableFuture<>();
+        CompletableFuture<String> first = requests.join("CURRENT:6150:2376", () -> response);
+        CompletableFuture<String> second = requests.join("CURRENT:6150:2376", () -> response);
+
+        first.cancel(true);
+        response.complete("current");
+        assertEquals("current", second.join());
+    }
+
+}
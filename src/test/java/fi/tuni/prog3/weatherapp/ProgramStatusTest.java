@@ -0,0 +1,43 @@
+
+package fi.tuni.prog3.weatherapp;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Melina
+ */
+public class ProgramStatusTest {
+
+    @Test
+    public void testSetCurrentLocation() {
+        ProgramStatus status = new ProgramStatus(new GeocodeCache());
+        assertEquals("", status.getCurrentLocation());
+
+        status.setCurrentLocation("Tampere");
+        assertEquals("Tampere", status.getCurrentLocation());
+    }
+
+    @Test
+    public void testKnownMissingLocationIsReplaced() {
+        GeocodeCache cache = new GeocodeCache();
+        cache.putMissing("Atlantis");
+        ProgramStatus status = new ProgramStatus(cache);
+
+        status.setCurrentLocation("atlantis");
+        assertEquals("Helsinki", status.getCurrentLocation());
+    }
+
+    @Test
+    public void testSetResolvedLocation() {
+        ProgramStatus status = new ProgramStatus();
+
+        status.setCurrentLocation(new Location("Tampere", 61.4980214, 23.7603118));
+        assertEquals("Tampere", status.getCurrentLocation());
+
+        status.setCurrentLocation((Location) null);
+        assertEquals("Helsinki", status.getCurrentLocation());
+    }
+
+}
@@ -0,0 +1,62 @@
+
+package fi.tuni.prog3.weatherapp;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Melina
+ */
+public class ResponseCacheTest {
+
+    static final double LAT_TAMPERE = 61.4980214;
+    static final double LON_TAMPERE = 23.7603118;
+
+    private ResponseCache cache;
+
+    public ResponseCacheTest() {
+        this.cache = new ResponseCache(2);
+    }
+
+    @Test
+    public void testHitAndMissCounts() {
+        String cached = cache.get(ResponseCache.Endpoint.CURRENT, LAT_TAMPERE, LON_TAMPERE);
+        assertNull(cached);
+        cache.put(ResponseCache.Endpoint.CURRENT, LAT_TAMPERE, LON_TAMPERE, "current");
+
+        cached = cache.get(ResponseCache.Endpoint.CURRENT, LAT_TAMPERE, LON_TAMPERE);
+        assertEquals("current", cached);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testCoordinatesAreRounded() {
+        cache.put(ResponseCache.Endpoint.DAILY, LAT_TAMPERE, LON_TAMPERE, "daily");
+
+        String nearby = cache.get(ResponseCache.Endpoint.DAILY, 61.4991, 23.7588);
+        String farAway = cache.get(ResponseCache.Endpoint.DAILY, 61.51, 23.76);
+        assertEquals("daily", nearby);
+        assertNull(farAway);
+    }
+
+    @Test
+    public void testEndpointsAreSeparate() {
+        cache.put(ResponseCache.Endpoint.DAILY, LAT_TAMPERE, LON_TAMPERE, "daily");
+
+        String hourly = cache.get(ResponseCache.Endpoint.HOURLY, LAT_TAMPERE, LON_TAMPERE);
+        assertNull(hourly);
+    }
+
+    @Test
+    public void testEntriesExpire() throws InterruptedException {
+        cache.setTimeToLive(ResponseCache.Endpoint.CURRENT, 50);
+        cache.put(ResponseCache.Endpoint.CURRENT, LAT_TAMPERE, LON_TAMPERE, "current");
+
+        Thread.sleep(100);
+        String expired = cache.get(ResponseCache.Endpoint.CURRENT, LAT_TAMPERE, LON_TAMPERE);
+        assertNull(expired);
+    }
+
+}
@@ -0,0 +1,114 @@
+
+package fi.tuni.prog3.weatherapp;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the decoders against recorded OpenWeatherMap responses in
+ * src/test/resources/payloads.
+ *
+ * @author Melina
+ */
+public class ResponseDecoderTest {
+
+    static Reader payload(String name) {
+        return new InputStreamReader(ResponseDecoderTest.class.getResourceAsStream(
+                "/payloads/" + name + ".json"), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testDecodeLocation() throws IOException {
+        Location result = ResponseDecoder.decodeLocation(payload("geocode"));
+        assertEquals(new Location("Tampere", 61.4980214, 23.7603118), result);
+    }
+
+    @Test
+    public void testDecodeUnknownLocation() throws IOException {
+        assertNull(ResponseDecoder.decodeLocation(new StringReader("[]")));
+    }
+
+    @Test
+    public void testDecodeLocations() throws IOException {
+        List<Location> result = ResponseDecoder.decodeLocations(payload("geocode"));
+        assertEquals(List.of(new Location("Tampere", 61.4980214, 23.7603118),
+                new Location("Tampere", 61.4991, 23.7871)), result);
+        assertEquals(List.of(), ResponseDecoder.decodeLocations(new StringReader("[]")));
+    }
+
+    @Test
+    public void testDecodeCurrentWeather() throws IOException {
+        CurrentConditions result = ResponseDecoder.decodeCurrentWeather(payload("current"));
+        assertEquals(new CurrentConditions(7.32, "light rain", 0.41, 4.12, 213, 500, "10d", 634963), result);
+    }
+
+    @Test
+    public void testDecodeGroup() throws IOException {
+        List<CurrentConditions> result = ResponseDecoder.decodeGroup(payload("group"));
+        assertEquals(2, result.size());
+        assertEquals(new CurrentConditions(7.32, "light rain", 0.41, 4.12, 213, 500, "10d", 634963), result.get(0));
+        assertEquals(633679, result.get(1).getCityId());
+        assertEquals(0.0, result.get(1).getPrecipitation());
+        assertEquals("04d", result.get(1).getIcon());
+    }
+
+    @Test
+    public void testDecodeDescriptionWithComma() throws IOException {
+        String json = "{\"weather\":[{\"id\":701,\"description\":\"mist, haze\",\"icon\":\"50d\"}],"
+                + "\"main\":{\"temp\":1.5},\"wind\":{\"speed\":2.0,\"deg\":90}}";
+        CurrentConditions result = ResponseDecoder.decodeCurrentWeather(new StringReader(json));
+        assertEquals("mist, haze", result.getDescription());
+        assertEquals(0.0, result.getPrecipitation());
+    }
+
+    @Test
+    public void testDecodeDailyForecast() throws IOException {
+        List<DailyForecastEntry> result = ResponseDecoder.decodeDailyForecast(payload("daily"));
+        assertEquals(7, result.size());
+        for (DailyForecastEntry entry : result) {
+            assertNotNull(entry.getIcon());
+            assertTrue(entry.getMinTemp() <= entry.getMaxTemp());
+        }
+        assertEquals(1760781600L, result.get(0).getTime());
+    }
+
+    @Test
+    public void testDecodeHourlyForecast() throws IOException {
+        List<HourlyForecastEntry> result = ResponseDecoder.decodeHourlyForecast(payload("hourly"));
+        assertEquals(96, result.size());
+        assertEquals(3600L, result.get(1).getTime() - result.get(0).getTime());
+        for (HourlyForecastEntry entry : result) {
+            assertNotNull(entry.getIcon());
+            assertTrue(entry.getPrecipitation() >= 0.0);
+        }
+    }
+
+    @Test
+    public void testDecodeOneCall() throws IOException {
+        WeatherBundle result = ResponseDecoder.decodeOneCall(payload("onecall"));
+        assertEquals(new CurrentConditions(7.32, "light rain", 0.41, 4.12, 213, 500, "10d"), result.getCurrent());
+        assertEquals(8, result.getDaily().size());
+        assertEquals(48, result.getHourly().size());
+        assertEquals(new DailyForecastEntry(1760781600L, "10d", 3.0, 8.0), result.getDaily().get(0));
+        assertEquals(0.3, result.getHourly().get(0).getPrecipitation());
+        assertEquals(0.0, result.getHourly().get(2).getPrecipitation());
+        assertEquals("04d", result.getHourly().get(2).getIcon());
+    }
+
+    @Test
+    public void testOneCallWithoutWeatherHasNoCondition() throws IOException {
+        WeatherBundle result = ResponseDecoder.decodeOneCall(new StringReader("{\"hourly\":["
+                + "{\"dt\":3600,\"temp\":5.0,\"weather\":[{\"id\":500,\"description\":\"light rain\",\"icon\":\"10d\"}]},"
+                + "{\"dt\":7200,\"temp\":4.0}],"
+                + "\"current\":{\"dt\":3600,\"temp\":5.0}}"));
+        assertNull(result.getHourly().get(1).getIcon());
+        assertEquals(new CurrentConditions(5.0, null, 0.0, 0.0, 0.0, 0, null), result.getCurrent());
+    }
+
+}
@@ -0,0 +1,88 @@
+
+package fi.tuni.prog3.weatherapp;
+
+import com.google.gson.Gson;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Melina
+ */
+public class SnapshotStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    static LocationSnapshot snapshot() {
+        WeatherData current = new WeatherData("Tampere", 61.5, 23.76, -2.5, "light snow",
+                0.3, 4.1, 200.0, 600, "https://openweathermap.org/img/wn/13d@2x.png", "");
+        WeatherData day = new WeatherData();
+        day.setDate("Mon 18.11.");
+        day.setMinTemp(-6.0);
+        day.setMaxTemp(-1.0);
+        ForecastSeries hours = ForecastSeries.of(List.of(
+                new HourlyForecastEntry(1700056800L, "13d", -2.0, 4.0, 200.0, 0.25)));
+        return new LocationSnapshot("Tampere", 61.5, 23.76, current, List.of(day), hours,
+                1700000000000L);
+    }
+
+    @Test
+    public void testSaveAndLoad() {
+        SnapshotStore store = new SnapshotStore(tempDir.resolve("lastSnapshot.json"));
+        store.save(snapshot());
+
+        LocationSnapshot loaded = new SnapshotStore(tempDir.resolve("lastSnapshot.json")).load();
+
+        assertEquals("Tampere", loaded.getLocationName());
+        assertEquals(61.5, loaded.getLatitude());
+        assertEquals(1700000000000L, loaded.getFetchedAt());
+        assertEquals(-2.5, loaded.getCurrentWeather().getTemperature());
+        assertEquals("light snow", loaded.getCurrentWeather().getDescription());
+        assertEquals(600, loaded.getCurrentWeather().getWeatherId());
+        assertEquals("Mon 18.11.", loaded.getDailyForecast().get(0).getDate());
+        assertEquals(-6.0, loaded.getDailyForecast().get(0).getMinTemp());
+        assertEquals(1, loaded.getHourlyForecast().size());
+        assertEquals(1700056800L, loaded.getHourlyForecast().getTime(0));
+        assertEquals(-2.0f, loaded.getHourlyForecast().getTemperature(0));
+        assertEquals(0.25f, loaded.getHourlyForecast().getPrecipitation(0));
+        assertEquals("13d", loaded.getHourlyForecast().getIcon(0));
+        assertThrows(UnsupportedOperationException.class,
+                () -> loaded.getDailyForecast().add(new WeatherData()));
+        assertFalse(Files.exists(tempDir.resolve("lastSnapshot.json.tmp")));
+    }
+
+    @Test
+    public void testMissingOrCorrupt() throws Exception {
+        Path file = tempDir.resolve("lastSnapshot.json");
+        assertNull(new SnapshotStore(file).load());
+
+        Files.writeString(file, "{\"locationName\": ");
+        assertNull(new SnapshotStore(file).load());
+
+        Files.writeString(file, "{}");
+        assertNull(new SnapshotStore(file).load());
+
+        String stored = new Gson().toJson(snapshot());
+        assertTrue(stored.contains("\"size\":1"));
+        Files.writeString(file, stored.replace("\"size\":1", "\"size\":5"));
+        assertNull(new SnapshotStore(file).load());
+    }
+
+    @Test
+    public void testWithoutCurrentWeatherIsNotLoaded() {
+        Path file = tempDir.resolve("lastSnapshot.json");
+        SnapshotStore store = new SnapshotStore(file);
+        WeatherData current = new WeatherData();
+        current.setLocationName("Tampere");
+        store.save(new LocationSnapshot("Tampere", 61.5, 23.76, current, List.of(),
+                ForecastSeries.EMPTY));
+
+        assertNull(store.load());
+    }
+
+}
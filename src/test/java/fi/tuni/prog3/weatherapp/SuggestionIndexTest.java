@@ -0,0 +1,34 @@
+
+package fi.tuni.prog3.weatherapp;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Melina
+ */
+public class SuggestionIndexTest {
+
+    private final SuggestionIndex index = new SuggestionIndex(CityIndex.getDefault());
+
+    @Test
+    public void testCitiesByPopulation() {
+        assertEquals(List.of("Tallinn", "Tampere", "Tartu"), index.suggest("ta", 3));
+        assertEquals(List.of("Seoul", "Seattle", "Seinäjoki"), index.suggest("SE", 5));
+        assertEquals(List.of("Jyväskylä"), index.suggest("jyv", 5));
+        assertEquals(List.of(), index.suggest(" ", 5));
+        assertEquals(List.of(), index.suggest("xyz", 5));
+    }
+
+    @Test
+    public void testKnownNamesComeFirst() {
+        index.add("Tammela");
+        index.add("Tampere");
+
+        assertEquals(List.of("Tammela", "Tampere", "Tallinn"), index.suggest("Ta", 3));
+        assertEquals(List.of("Tammela"), index.suggest("Ta", 1));
+    }
+
+}
@@ -0,0 +1,96 @@
+
+package fi.tuni.prog3.weatherapp;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Melina
+ */
+public class WriteBehindPersisterTest {
+
+    @TempDir
+    Path tempDir;
+
+    static class CountingWriter implements iReadAndWriteToFile {
+
+        final AtomicInteger writes = new AtomicInteger();
+
+        @Override
+        public boolean readFromFile(String fileName) {
+            return false;
+        }
+
+        @Override
+        public boolean writeToFile(String fileName) {
+            writes.incrementAndGet();
+            return true;
+        }
+    }
+
+    @Test
+    public void testBurstIsWrittenOnce() throws Exception {
+        CountingWriter writer = new CountingWriter();
+        WriteBehindPersister persister = new WriteBehindPersister(writer, "status.json",
+                Duration.ofMillis(100));
+
+        for (int i = 0; i < 100; i++) {
+            persister.changed();
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (writer.writes.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(200);
+
+        assertEquals(1, writer.writes.get());
+        assertEquals(1, persister.getWrites());
+    }
+
+    @Test
+    public void testFlushWritesFile() throws Exception {
+        String fileName = tempDir.resolve("status.json").toString();
+        FavouritesManager favourites = new FavouritesManager();
+        ProgramStatus status = new ProgramStatus();
+        FileManager fileManager = new FileManager(fileName, favourites, status);
+        WriteBehindPersister persister = new WriteBehindPersister(fileManager, fileName,
+                Duration.ofMinutes(1));
+
+        favourites.addFavourite("Tampere");
+        status.setCurrentLocation("Tampere");
+        persister.changed();
+        persister.flush();
+
+        assertEquals(1, persister.getWrites());
+        assertFalse(Files.exists(tempDir.resolve("status.json.tmp")));
+
+        FavouritesManager readFavourites = new FavouritesManager();
+        ProgramStatus readStatus = new ProgramStatus();
+        assertTrue(new FileManager(fileName, readFavourites, readStatus).readFromFile(fileName));
+        assertTrue(readFavourites.isFavourite("Tampere"));
+        assertEquals("Tampere", readStatus.getCurrentLocation());
+    }
+
+    @Test
+    public void testCloseWritesWaitingChange() {
+        CountingWriter writer = new CountingWriter();
+        WriteBehindPersister persister = new WriteBehindPersister(writer, "status.json",
+                Duration.ofMinutes(1));
+
+        persister.changed();
+        persister.close();
+        assertEquals(1, writer.writes.get());
+
+        persister.changed();
+        persister.flush();
+        persister.close();
+        assertEquals(1, writer.writes.get());
+    }
+
+}